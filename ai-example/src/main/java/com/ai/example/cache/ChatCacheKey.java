@@ -0,0 +1,32 @@
+package com.ai.example.cache;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Cache key for a chat completion. The prompt is normalized (trimmed, whitespace collapsed,
+ * lower-cased) so trivially different spellings of the same question share an entry.
+ */
+public record ChatCacheKey(String prompt, String model, Double temperature, Integer maxTokens) {
+
+    public static ChatCacheKey of(String prompt, String model, Double temperature, Integer maxTokens) {
+        return new ChatCacheKey(normalize(prompt), model, temperature, maxTokens);
+    }
+
+    /**
+     * Two keys are compatible when they only differ in their prompt text, i.e. an answer
+     * generated for one may be reused for the other if the prompts are similar enough.
+     */
+    public boolean sameOptions(ChatCacheKey other) {
+        return Objects.equals(model, other.model)
+                && Objects.equals(temperature, other.temperature)
+                && Objects.equals(maxTokens, other.maxTokens);
+    }
+
+    static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        return prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ai.example.cache;
+
+import com.ai.example.dto.AiChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Exact-match layer: LRU map keyed on the normalized prompt and chat options, with a TTL per entry.
+ */
+public class ExactResponseCache implements ResponseCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<ChatCacheKey, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ExactResponseCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this(maxEntries, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    ExactResponseCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChatCacheKey, Entry> eldest) {
+                return size() > ExactResponseCache.this.maxEntries;
+            }
+        };
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("ai.chat.cache.size", this, ExactResponseCache::size)
+                .tag("layer", "exact")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AiChatResponse get(ChatCacheKey key, Supplier<AiChatResponse> loader) {
+        AiChatResponse cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        AiChatResponse response = loader.get();
+        if (response != null && response.getResponse() != null) {
+            synchronized (this) {
+                entries.put(key, new Entry(response, clock.millis() + ttl.toMillis()));
+            }
+        }
+        return response;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized AiChatResponse lookup(ChatCacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.chat.cache.requests")
+                .tag("layer", "exact")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(AiChatResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.ai.example.cache;
+
+import com.ai.example.dto.AiChatResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * Pluggable cache in front of the chat model. Implementations either return a previously
+ * generated response for the key or invoke the loader and (optionally) remember its result.
+ */
+public interface ResponseCache {
+
+    AiChatResponse get(ChatCacheKey key, Supplier<AiChatResponse> loader);
+
+    /**
+     * Chains two layers: the next layer is only consulted when this one misses.
+     */
+    default ResponseCache andThen(ResponseCache next) {
+        return (key, loader) -> get(key, () -> next.get(key, loader));
+    }
+
+    /**
+     * A cache that never stores anything.
+     */
+    static ResponseCache none() {
+        return (key, loader) -> loader.get();
+    }
+}
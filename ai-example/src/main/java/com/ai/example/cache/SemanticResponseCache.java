@@ -0,0 +1,139 @@
+package com.ai.example.cache;
+
+import com.ai.example.dto.AiChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Similarity layer: reuses an answer when the embedding of the new prompt is within a cosine
+ * threshold of a cached prompt generated with the same options. Entries expire after the TTL
+ * and the oldest entry is evicted once the cache is full.
+ */
+public class SemanticResponseCache implements ResponseCache {
+
+    private final EmbeddingModel embeddingModel;
+    private final double threshold;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public SemanticResponseCache(EmbeddingModel embeddingModel, double threshold, int maxEntries,
+                                 Duration ttl, MeterRegistry meterRegistry) {
+        this(embeddingModel, threshold, maxEntries, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    SemanticResponseCache(EmbeddingModel embeddingModel, double threshold, int maxEntries,
+                          Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.embeddingModel = embeddingModel;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("ai.chat.cache.size", this, SemanticResponseCache::size)
+                .tag("layer", "semantic")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AiChatResponse get(ChatCacheKey key, Supplier<AiChatResponse> loader) {
+        float[] vector = normalize(embeddingModel.embed(key.prompt()));
+
+        AiChatResponse cached = findSimilar(key, vector);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        AiChatResponse response = loader.get();
+        if (response != null && response.getResponse() != null) {
+            store(new Entry(key, vector, response, clock.millis() + ttl.toMillis()));
+        }
+        return response;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized AiChatResponse findSimilar(ChatCacheKey key, float[] vector) {
+        long now = clock.millis();
+        Entry best = null;
+        double bestScore = threshold;
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt() <= now) {
+                it.remove();
+                continue;
+            }
+            if (!entry.key().sameOptions(key)) {
+                continue;
+            }
+            double score = dot(entry.vector(), vector);
+            if (score >= bestScore) {
+                best = entry;
+                bestScore = score;
+            }
+        }
+        return best != null ? best.response() : null;
+    }
+
+    private synchronized void store(Entry entry) {
+        while (entries.size() >= maxEntries) {
+            entries.pollFirst();
+        }
+        entries.addLast(entry);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        if (norm == 0) {
+            return vector;
+        }
+        float[] result = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = (float) (vector[i] / norm);
+        }
+        return result;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.chat.cache.requests")
+                .tag("layer", "semantic")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(ChatCacheKey key, float[] vector, AiChatResponse response, long expiresAt) {
+    }
+}
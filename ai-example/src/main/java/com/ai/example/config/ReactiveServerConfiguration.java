@@ -0,0 +1,21 @@
+package com.ai.example.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Runs the "reactive" profile on Reactor Netty. spring-boot-starter-web keeps Tomcat on the
+ * classpath for the servlet mode, and Boot prefers Tomcat's reactive adapter over Netty when
+ * both are present, so the server factory is declared explicitly.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfiguration {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ai.example.config;
+
+import com.ai.example.cache.ExactResponseCache;
+import com.ai.example.cache.ResponseCache;
+import com.ai.example.cache.SemanticResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Wires the response cache used by {@link com.ai.example.service.OpenAiService}.
+ * The exact-match layer is on by default; the similarity layer needs an embedding model
+ * and is opt-in via {@code ai.chat.cache.semantic.enabled}.
+ */
+@Configuration
+public class ResponseCacheConfiguration {
+
+    @Value("${ai.chat.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.chat.cache.exact.max-entries:10000}")
+    private int exactMaxEntries;
+
+    @Value("${ai.chat.cache.exact.ttl:PT1H}")
+    private Duration exactTtl;
+
+    @Value("${ai.chat.cache.semantic.enabled:false}")
+    private boolean semanticEnabled;
+
+    @Value("${ai.chat.cache.semantic.threshold:0.95}")
+    private double semanticThreshold;
+
+    @Value("${ai.chat.cache.semantic.max-entries:1000}")
+    private int semanticMaxEntries;
+
+    @Value("${ai.chat.cache.semantic.ttl:PT1H}")
+    private Duration semanticTtl;
+
+    @Bean
+    public ResponseCache responseCache(MeterRegistry meterRegistry, ObjectProvider<EmbeddingModel> embeddingModel) {
+        if (!enabled) {
+            return ResponseCache.none();
+        }
+        ResponseCache cache = new ExactResponseCache(exactMaxEntries, exactTtl, meterRegistry);
+        EmbeddingModel model = embeddingModel.getIfAvailable();
+        if (semanticEnabled && model != null) {
+            cache = cache.andThen(new SemanticResponseCache(
+                    model, semanticThreshold, semanticMaxEntries, semanticTtl, meterRegistry));
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ai.example.config;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces the OpenAI model with a local stub that answers after a fixed delay.
+ * Used to load test the request handling (e.g. virtual vs. platform threads)
+ * without paying for, or being rate limited by, the real model.
+ * <p>
+ * Activate with {@code --spring.profiles.active=stub-model}.
+ */
+@Configuration
+@Profile("stub-model")
+public class StubChatModelConfiguration {
+
+    @Value("${ai.stub-model.latency:PT2S}")
+    private Duration latency;
+
+    @Value("${ai.stub-model.stream-chunks:20}")
+    private int streamChunks;
+
+    @Bean
+    @Primary
+    public ChatModel stubChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                try {
+                    Thread.sleep(latency.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return response("Stub answer to: " + prompt.getContents());
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                Duration chunkDelay = latency.dividedBy(Math.max(streamChunks, 1));
+                return Flux.range(0, streamChunks)
+                        .delayElements(chunkDelay)
+                        .map(i -> response("token" + i + " "));
+            }
+        };
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -4,7 +4,11 @@ import com.ai.example.dto.ChatRequest;
 import com.ai.example.dto.AiChatResponse;
 import com.ai.example.dto.StreamChatRequest;
 import com.ai.example.service.OpenAiService;
+import com.ai.example.stream.ResumableStreams;
+import com.ai.example.stream.StreamEvent;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
@@ -12,13 +16,16 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/chat")
 public class OpenAIController {
     
     private final OpenAiService openAiService;
+    private final ResumableStreams resumableStreams;
     
-    public OpenAIController(OpenAiService openAiService) {
+    public OpenAIController(OpenAiService openAiService, ResumableStreams resumableStreams) {
         this.openAiService = openAiService;
+        this.resumableStreams = resumableStreams;
     }
     
     /**
@@ -46,10 +53,22 @@ public class OpenAIController {
      * Streaming chat endpoint - returns response as Server-Sent Events
      * POST /api/chat/stream
      * Body: { "message": "Your question here" }
+     * Events: "delta" {"text"}, "usage" {"promptTokens", "completionTokens", "totalTokens"},
+     * "done" {"finishReason"}, or "error" {"message"}
+     * After a dropped connection, repeat the request with the Last-Event-ID header to continue
+     * where it broke off; the prompt is only generated again if the stream has expired.
      */
     @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> streamChat(@RequestBody StreamChatRequest request) {
-        return openAiService.streamChat(request.getMessage());
+    public Flux<ServerSentEvent<StreamEvent>> streamChat(@RequestBody StreamChatRequest request,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (lastEventId != null) {
+            Flux<ServerSentEvent<StreamEvent>> resumed = resumableStreams.resume(lastEventId);
+            if (resumed != null) {
+                return resumed;
+            }
+        }
+        return resumableStreams.start(openAiService.streamChat(request.getMessage())
+                .onErrorResume(e -> Flux.just(new StreamEvent.Failure(e.getMessage()))));
     }
     
     /**
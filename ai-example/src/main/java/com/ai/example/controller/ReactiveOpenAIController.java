@@ -0,0 +1,110 @@
+package com.ai.example.controller;
+
+import com.ai.example.dto.AiChatResponse;
+import com.ai.example.dto.ChatRequest;
+import com.ai.example.dto.StreamChatRequest;
+import com.ai.example.service.ReactiveOpenAiService;
+import com.ai.example.stream.ResumableStreams;
+import com.ai.example.stream.StreamEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux variant of {@link OpenAIController}, serving the same /api/chat/* surface without
+ * blocking a thread per conversation. Active with the "reactive" profile.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/chat")
+public class ReactiveOpenAIController {
+
+    private final ReactiveOpenAiService openAiService;
+    private final ResumableStreams resumableStreams;
+
+    public ReactiveOpenAIController(ReactiveOpenAiService openAiService, ResumableStreams resumableStreams) {
+        this.openAiService = openAiService;
+        this.resumableStreams = resumableStreams;
+    }
+
+    /**
+     * Simple chat endpoint
+     * POST /api/chat/simple
+     * Body: { "message": "Your question here" }
+     */
+    @PostMapping("/simple")
+    public Mono<AiChatResponse> simpleChat(@RequestBody Map<String, String> request) {
+        return openAiService.chat(request.get("message"));
+    }
+
+    /**
+     * Chat with custom options (temperature, max tokens)
+     * POST /api/chat/custom
+     * Body: { "message": "Your question", "temperature": 0.7, "maxTokens": 1000 }
+     */
+    @PostMapping("/custom")
+    public Mono<AiChatResponse> customChat(@RequestBody ChatRequest request) {
+        return openAiService.chatWithOptions(request);
+    }
+
+    /**
+     * Streaming chat endpoint - returns response as Server-Sent Events
+     * POST /api/chat/stream
+     * Body: { "message": "Your question here" }
+     * Events: "delta" {"text"}, "usage" {"promptTokens", "completionTokens", "totalTokens"},
+     * "done" {"finishReason"}, or "error" {"message"}
+     * After a dropped connection, repeat the request with the Last-Event-ID header to continue
+     * where it broke off; the prompt is only generated again if the stream has expired.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StreamEvent>> streamChat(@RequestBody StreamChatRequest request,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (lastEventId != null) {
+            Flux<ServerSentEvent<StreamEvent>> resumed = resumableStreams.resume(lastEventId);
+            if (resumed != null) {
+                return resumed;
+            }
+        }
+        return resumableStreams.start(openAiService.streamChat(request.getMessage())
+                .onErrorResume(e -> Flux.just(new StreamEvent.Failure(e.getMessage()))));
+    }
+
+    /**
+     * Chat with system prompt
+     * POST /api/chat/system-prompt
+     * Body: { "message": "User question", "systemPrompt": "You are a helpful assistant..." }
+     */
+    @PostMapping("/system-prompt")
+    public Mono<AiChatResponse> chatWithSystemPrompt(@RequestBody StreamChatRequest request) {
+        return openAiService.chatWithSystemPrompt(request.getMessage(), request.getSystemPrompt());
+    }
+
+    /**
+     * Multi-turn conversation
+     * POST /api/chat/conversation
+     * Body: { "messages": ["First message", "Second message", "Third message"] }
+     */
+    @PostMapping("/conversation")
+    public Mono<AiChatResponse> multiTurnChat(@RequestBody Map<String, List<String>> request) {
+        return openAiService.multiTurnChat(request.get("messages"));
+    }
+
+    /**
+     * Health check endpoint
+     * GET /api/chat/health
+     */
+    @GetMapping("/health")
+    public Map<String, String> health() {
+        return Map.of(
+                "status", "UP",
+                "service", "OpenAI Chat Service (reactive)",
+                "model", "gpt-5"
+        );
+    }
+}
@@ -1,7 +1,12 @@
 package com.ai.example.service;
 
+import com.ai.example.cache.ChatCacheKey;
+import com.ai.example.cache.ResponseCache;
+import com.ai.example.concurrent.SingleFlight;
 import com.ai.example.dto.ChatRequest;
 import com.ai.example.dto.AiChatResponse;
+import com.ai.example.stream.StreamEvent;
+import com.ai.example.stream.StreamFramer;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
@@ -17,23 +22,39 @@ public class OpenAiService {
     private static final String AI_MODEL = "gpt-5";
 
     private final ChatModel chatModel;
+    private final ResponseCache responseCache;
+    private final SingleFlight<ChatCacheKey, AiChatResponse> chatFlights = new SingleFlight<>();
+    private final SingleFlight<ChatCacheKey, ChatResponse> streamFlights = new SingleFlight<>();
+    private final StreamFramer streamFramer;
     
-    public OpenAiService(ChatModel chatModel) {
+    public OpenAiService(ChatModel chatModel, ResponseCache responseCache, StreamFramer streamFramer) {
         this.chatModel = chatModel;
+        this.responseCache = responseCache;
+        this.streamFramer = streamFramer;
     }
     
     /**
-     * Simple chat completion with default settings
+     * Simple chat completion with default settings. Identical prompts that miss the cache
+     * at the same time share a single model call.
      */
     public AiChatResponse chat(String message) {
-        String response = chatModel.call(message);
-        return new AiChatResponse(response, AI_MODEL, null);
+        ChatCacheKey key = ChatCacheKey.of(message, AI_MODEL, null, null);
+        return responseCache.get(key, () -> chatFlights.call(key, () -> {
+            String response = chatModel.call(message);
+            return new AiChatResponse(response, AI_MODEL, null);
+        }));
     }
     
     /**
-     * Chat completion with custom options
+     * Chat completion with custom options, served from the response cache when possible
      */
     public AiChatResponse chatWithOptions(ChatRequest request) {
+        ChatCacheKey key = ChatCacheKey.of(request.getMessage(), AI_MODEL,
+                request.getTemperature(), request.getMaxTokens());
+        return responseCache.get(key, () -> chatFlights.call(key, () -> callWithOptions(request)));
+    }
+    
+    private AiChatResponse callWithOptions(ChatRequest request) {
         OpenAiChatOptions.Builder optionsBuilder = OpenAiChatOptions.builder()
                 .model(AI_MODEL);
         
@@ -56,12 +77,14 @@ public class OpenAiService {
     }
     
     /**
-     * Streaming chat completion
+     * Streaming chat completion as coalesced delta frames followed by usage and done events.
+     * Concurrent streams for the same prompt share one upstream stream; late subscribers replay
+     * the chunks emitted so far.
      */
-    public Flux<String> streamChat(String message) {
-        Prompt prompt = new Prompt(message);
-        return chatModel.stream(prompt)
-                .map(response -> response.getResult().getOutput().getText());
+    public Flux<StreamEvent> streamChat(String message) {
+        ChatCacheKey key = ChatCacheKey.of(message, AI_MODEL, null, null);
+        Prompt prompt = new Prompt(message, OpenAiChatOptions.builder().streamUsage(true).build());
+        return streamFramer.frame(streamFlights.stream(key, () -> chatModel.stream(prompt)));
     }
     
     /**
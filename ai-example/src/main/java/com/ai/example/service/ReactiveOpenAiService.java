@@ -0,0 +1,120 @@
+package com.ai.example.service;
+
+import com.ai.example.dto.AiChatResponse;
+import com.ai.example.dto.ChatRequest;
+import com.ai.example.stream.StreamEvent;
+import com.ai.example.stream.StreamFramer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link OpenAiService}.
+ * Every operation is built on {@link ChatModel#stream(Prompt)}, so no thread waits on the
+ * model: unary responses are aggregated from the stream and demand from the HTTP response
+ * propagates back to the upstream connection.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOpenAiService {
+
+    private static final String AI_MODEL = "gpt-5";
+
+    private final ChatModel chatModel;
+    private final StreamFramer streamFramer;
+
+    public ReactiveOpenAiService(ChatModel chatModel, StreamFramer streamFramer) {
+        this.chatModel = chatModel;
+        this.streamFramer = streamFramer;
+    }
+
+    /**
+     * Simple chat completion with default settings
+     */
+    public Mono<AiChatResponse> chat(String message) {
+        return aggregate(new Prompt(message, options().build()));
+    }
+
+    /**
+     * Chat completion with custom options
+     */
+    public Mono<AiChatResponse> chatWithOptions(ChatRequest request) {
+        OpenAiChatOptions.Builder optionsBuilder = options();
+
+        if (request.getTemperature() != null) {
+            optionsBuilder.temperature(request.getTemperature());
+        }
+
+        if (request.getMaxTokens() != null) {
+            optionsBuilder.maxTokens(request.getMaxTokens());
+        }
+
+        return aggregate(new Prompt(request.getMessage(), optionsBuilder.build()));
+    }
+
+    /**
+     * Streaming chat completion as coalesced delta frames followed by usage and done events
+     */
+    public Flux<StreamEvent> streamChat(String message) {
+        return streamFramer.frame(chatModel.stream(new Prompt(message, options().build())));
+    }
+
+    /**
+     * Chat with system prompt
+     */
+    public Mono<AiChatResponse> chatWithSystemPrompt(String userMessage, String systemPrompt) {
+        String combinedMessage = "System: " + systemPrompt + "\n\nUser: " + userMessage;
+        return aggregate(new Prompt(combinedMessage, options().build()));
+    }
+
+    /**
+     * Multi-turn conversation
+     */
+    public Mono<AiChatResponse> multiTurnChat(List<String> messages) {
+        StringBuilder conversation = new StringBuilder();
+        for (int i = 0; i < messages.size(); i++) {
+            conversation.append("Message ").append(i + 1).append(": ").append(messages.get(i)).append("\n");
+        }
+
+        return aggregate(new Prompt(conversation.toString(), options().build()));
+    }
+
+    private static OpenAiChatOptions.Builder options() {
+        return OpenAiChatOptions.builder()
+                .model(AI_MODEL)
+                .streamUsage(true);
+    }
+
+    /**
+     * Folds a streamed completion into a single response, keeping the last reported token usage.
+     */
+    private Mono<AiChatResponse> aggregate(Prompt prompt) {
+        return chatModel.stream(prompt)
+                .collect(Aggregation::new, Aggregation::add)
+                .map(aggregation -> new AiChatResponse(aggregation.text.toString(), AI_MODEL, aggregation.tokensUsed));
+    }
+
+    private static class Aggregation {
+
+        private final StringBuilder text = new StringBuilder();
+        private Integer tokensUsed;
+
+        void add(ChatResponse response) {
+            if (response.getResult() != null && response.getResult().getOutput().getText() != null) {
+                text.append(response.getResult().getOutput().getText());
+            }
+            Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                tokensUsed = usage.getTotalTokens().intValue();
+            }
+        }
+    }
+}
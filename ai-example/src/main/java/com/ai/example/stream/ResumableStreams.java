@@ -0,0 +1,225 @@
+package com.ai.example.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps streamed chat answers replayable, so a client whose connection drops can reconnect with
+ * {@code Last-Event-ID} and continue instead of paying for a second generation.
+ * <p>
+ * Each stream gets an id and its events are numbered; the SSE id is {@code <stream>:<seq>}.
+ * The upstream is consumed to the end even if the client goes away, and the last
+ * {@code max-events} events are kept in a ring until {@code ttl} after the last one.
+ * Buffers together are held to {@code max-bytes}: finished streams are evicted oldest first,
+ * and while the budget is still used up new streams are served without a buffer.
+ * Metrics: {@code ai.chat.stream.buffer.bytes}, {@code ai.chat.stream.buffer.streams},
+ * {@code ai.chat.stream.buffer.evictions}, {@code ai.chat.stream.buffer.rejected} and
+ * {@code ai.chat.stream.resumes{result=resumed|expired}}.
+ */
+@Component
+public class ResumableStreams {
+
+    private static final int EVENT_OVERHEAD = 96;
+
+    private final int maxEvents;
+    private final long maxBytes;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final Counter evictions;
+    private final Counter rejected;
+    private final Counter resumed;
+    private final Counter expired;
+
+    public ResumableStreams(@Value("${ai.chat.stream.resume.max-events:1024}") int maxEvents,
+                            @Value("${ai.chat.stream.resume.max-bytes:64MB}") DataSize maxBytes,
+                            @Value("${ai.chat.stream.resume.ttl:PT5M}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this(maxEvents, maxBytes, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    ResumableStreams(int maxEvents, DataSize maxBytes, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes.toBytes();
+        this.ttl = ttl;
+        this.clock = clock;
+        Gauge.builder("ai.chat.stream.buffer.bytes", bytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ai.chat.stream.buffer.streams", streams, Map::size)
+                .register(meterRegistry);
+        this.evictions = Counter.builder("ai.chat.stream.buffer.evictions").register(meterRegistry);
+        this.rejected = Counter.builder("ai.chat.stream.buffer.rejected").register(meterRegistry);
+        this.resumed = Counter.builder("ai.chat.stream.resumes").tag("result", "resumed").register(meterRegistry);
+        this.expired = Counter.builder("ai.chat.stream.resumes").tag("result", "expired").register(meterRegistry);
+    }
+
+    /**
+     * Starts buffering the events and returns them as numbered server-sent events.
+     */
+    public Flux<ServerSentEvent<StreamEvent>> start(Flux<StreamEvent> events) {
+        expire();
+        if (bytes.get() >= maxBytes && !evictFinished()) {
+            rejected.increment();
+            return events.map(event -> ServerSentEvent.builder(event).event(event.name()).build());
+        }
+        Stream stream = new Stream(UUID.randomUUID().toString());
+        streams.put(stream.id, stream);
+        stream.upstream = events.subscribe(stream::add,
+                e -> {
+                    stream.add(new StreamEvent.Failure(e.getMessage()));
+                    stream.complete();
+                },
+                stream::complete);
+        return stream.events(0);
+    }
+
+    /**
+     * Continues a stream after the event the client last received.
+     *
+     * @param lastEventId the {@code Last-Event-ID} the client sent
+     * @return the remaining events, or null if the stream, or the part after that event, is gone
+     */
+    public Flux<ServerSentEvent<StreamEvent>> resume(String lastEventId) {
+        expire();
+        int separator = lastEventId.lastIndexOf(':');
+        Stream stream = separator > 0 ? streams.get(lastEventId.substring(0, separator)) : null;
+        long seq = stream != null ? parseSeq(lastEventId.substring(separator + 1)) : -1;
+        if (stream == null || seq < 0 || !stream.holdsAfter(seq)) {
+            expired.increment();
+            return null;
+        }
+        resumed.increment();
+        return stream.events(seq);
+    }
+
+    public long bufferedBytes() {
+        return bytes.get();
+    }
+
+    private static long parseSeq(String seq) {
+        try {
+            return Long.parseLong(seq);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void expire() {
+        long now = clock.millis();
+        streams.values().removeIf(stream -> {
+            if (now - stream.lastEventAt < ttl.toMillis()) {
+                return false;
+            }
+            stream.release();
+            return true;
+        });
+    }
+
+    /**
+     * Evicts finished streams, oldest first, until the buffers fit the budget again.
+     */
+    private boolean evictFinished() {
+        streams.values().stream()
+                .filter(stream -> stream.done)
+                .sorted(Comparator.comparingLong(stream -> stream.lastEventAt))
+                .takeWhile(stream -> bytes.get() >= maxBytes)
+                .forEach(stream -> {
+                    if (streams.remove(stream.id, stream)) {
+                        stream.release();
+                        evictions.increment();
+                    }
+                });
+        return bytes.get() < maxBytes;
+    }
+
+    private static int size(StreamEvent event) {
+        return event instanceof StreamEvent.Delta delta ? EVENT_OVERHEAD + 2 * delta.text().length() : EVENT_OVERHEAD;
+    }
+
+    private record Sequenced(long seq, StreamEvent event) {
+    }
+
+    private final class Stream {
+
+        private final String id;
+        private final Sinks.Many<Sequenced> sink = Sinks.many().replay().limit(maxEvents);
+        private final ArrayDeque<Integer> sizes = new ArrayDeque<>();
+        private long held;
+        private long lastSeq;
+        private volatile long lastEventAt = clock.millis();
+        private volatile boolean done;
+        private volatile Disposable upstream;
+
+        private Stream(String id) {
+            this.id = id;
+        }
+
+        synchronized void add(StreamEvent event) {
+            int size = size(event);
+            sizes.addLast(size);
+            held += size;
+            bytes.addAndGet(size);
+            if (sizes.size() > maxEvents) {
+                int dropped = sizes.removeFirst();
+                held -= dropped;
+                bytes.addAndGet(-dropped);
+            }
+            lastEventAt = clock.millis();
+            sink.tryEmitNext(new Sequenced(++lastSeq, event));
+            if (bytes.get() > maxBytes) {
+                evictFinished();
+            }
+        }
+
+        synchronized void complete() {
+            done = true;
+            lastEventAt = clock.millis();
+            sink.tryEmitComplete();
+        }
+
+        /**
+         * Whether every event after {@code seq} is still in the ring.
+         */
+        synchronized boolean holdsAfter(long seq) {
+            return seq <= lastSeq && seq >= lastSeq - sizes.size();
+        }
+
+        Flux<ServerSentEvent<StreamEvent>> events(long after) {
+            return sink.asFlux()
+                    .filter(sequenced -> sequenced.seq() > after)
+                    .map(sequenced -> ServerSentEvent.builder(sequenced.event())
+                            .id(id + ":" + sequenced.seq())
+                            .event(sequenced.event().name())
+                            .build());
+        }
+
+        synchronized void release() {
+            if (upstream != null && !done) {
+                upstream.dispose();
+            }
+            bytes.addAndGet(-held);
+            held = 0;
+            sizes.clear();
+            sink.tryEmitComplete();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ai.example.stream;
+
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Turns a streamed completion into SSE frames. Upstream chunks arrive one token fragment at a
+ * time; writing and flushing each as its own event costs a write and a flush per token. Fragments
+ * are instead collected until {@code max-deltas} have arrived or {@code window} has passed since
+ * the first one, and sent as one {@link StreamEvent.Delta}. Chunks without text are dropped.
+ * The last usage and finish reason reported upstream follow as {@link StreamEvent.Usage} and
+ * {@link StreamEvent.Done}.
+ */
+@Component
+public class StreamFramer {
+
+    private final int maxDeltas;
+    private final Duration window;
+
+    public StreamFramer(@Value("${ai.chat.stream.frame.max-deltas:32}") int maxDeltas,
+                        @Value("${ai.chat.stream.frame.window:PT0.05S}") Duration window) {
+        this.maxDeltas = maxDeltas;
+        this.window = window;
+    }
+
+    public Flux<StreamEvent> frame(Flux<ChatResponse> responses) {
+        return Flux.defer(() -> {
+            AtomicReference<StreamEvent.Usage> usage = new AtomicReference<>();
+            AtomicReference<String> finishReason = new AtomicReference<>();
+            Flux<StreamEvent> deltas = responses
+                    .doOnNext(response -> {
+                        StreamEvent.Usage reported = usage(response);
+                        if (reported != null) {
+                            usage.set(reported);
+                        }
+                        String reason = finishReason(response);
+                        if (reason != null && !reason.isBlank()) {
+                            finishReason.set(reason);
+                        }
+                    })
+                    .mapNotNull(StreamFramer::text)
+                    .filter(text -> !text.isEmpty())
+                    // fair back-pressure: a frame whose window closes while the writer is busy waits for it
+                    .bufferTimeout(maxDeltas, window, true)
+                    .map(fragments -> new StreamEvent.Delta(String.join("", fragments)));
+            return deltas.concatWith(Flux.defer(() -> Mono.justOrEmpty(usage.get())))
+                    .concatWith(Mono.fromSupplier(() -> new StreamEvent.Done(finishReason.get())));
+        });
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult() != null ? response.getResult().getOutput().getText() : null;
+    }
+
+    private static String finishReason(ChatResponse response) {
+        return response.getResult() != null && response.getResult().getMetadata() != null
+                ? response.getResult().getMetadata().getFinishReason() : null;
+    }
+
+    private static StreamEvent.Usage usage(ChatResponse response) {
+        var usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+        if (usage == null || usage.getTotalTokens() == null || usage.getTotalTokens() <= 0) {
+            return null;
+        }
+        return new StreamEvent.Usage(usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens());
+    }
+}
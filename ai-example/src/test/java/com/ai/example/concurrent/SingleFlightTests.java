@@ -0,0 +1,122 @@
+package com.ai.example.concurrent;
+
+import com.ai.example.cache.ResponseCache;
+import com.ai.example.dto.AiChatResponse;
+import com.ai.example.service.OpenAiService;
+import com.ai.example.stream.StreamEvent;
+import com.ai.example.stream.StreamFramer;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTests {
+
+    private final SlowChatModel chatModel = new SlowChatModel(Duration.ofMillis(300));
+    private final OpenAiService service = new OpenAiService(chatModel, ResponseCache.none(),
+            new StreamFramer(32, Duration.ofMillis(20)));
+
+    @Test
+    void concurrentIdenticalPromptsShareOneCall() throws Exception {
+        int callers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AiChatResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.chat("What is Spring Boot?");
+                }));
+            }
+            start.countDown();
+            for (Future<AiChatResponse> result : results) {
+                assertThat(result.get().getResponse()).isEqualTo("answer 1");
+            }
+        }
+
+        assertThat(chatModel.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void differentPromptsAreNotCoalesced() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<AiChatResponse> first = executor.submit(() -> service.chat("first"));
+            Future<AiChatResponse> second = executor.submit(() -> service.chat("second"));
+            first.get();
+            second.get();
+        }
+
+        assertThat(chatModel.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void lateStreamSubscriberReplaysEmittedTokens() throws Exception {
+        CompletableFuture<List<StreamEvent>> early = service.streamChat("Tell me a story").collectList().toFuture();
+        Thread.sleep(150);
+        List<StreamEvent> late = service.streamChat("Tell me a story").collectList().block();
+
+        assertThat(text(early.get())).isEqualTo("Once upon a time");
+        assertThat(text(late)).isEqualTo("Once upon a time");
+        assertThat(late).last().isInstanceOf(StreamEvent.Done.class);
+        assertThat(chatModel.streams.get()).isEqualTo(1);
+    }
+
+    private static String text(List<StreamEvent> events) {
+        return events.stream()
+                .filter(StreamEvent.Delta.class::isInstance)
+                .map(event -> ((StreamEvent.Delta) event).text())
+                .collect(Collectors.joining());
+    }
+
+    static class SlowChatModel implements ChatModel {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger streams = new AtomicInteger();
+        private final Duration latency;
+
+        SlowChatModel(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            int call = calls.incrementAndGet();
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response("answer " + call);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                streams.incrementAndGet();
+                return Flux.just("Once", " upon", " a", " time")
+                        .delayElements(Duration.ofMillis(100))
+                        .map(SlowChatModel::response);
+            });
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
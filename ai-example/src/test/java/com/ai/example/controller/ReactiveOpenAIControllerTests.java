@@ -0,0 +1,77 @@
+package com.ai.example.controller;
+
+import com.ai.example.stream.StreamEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"token=test", "ai.stub-model.latency=PT0.2S", "ai.stub-model.stream-chunks=5"})
+@ActiveProfiles({"reactive", "stub-model"})
+class ReactiveOpenAIControllerTests {
+
+    private static final String STUB_ANSWER = IntStream.range(0, 5)
+            .mapToObj(i -> "token" + i + " ")
+            .collect(Collectors.joining());
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Test
+    void servesOnReactorNetty() {
+        assertThat(context.getWebServer()).isInstanceOf(NettyWebServer.class);
+    }
+
+    @Test
+    void unaryChatIsAggregatedFromTheStream() {
+        client.post().uri("/api/chat/simple")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("message", "Hello"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.response").isEqualTo(STUB_ANSWER)
+                .jsonPath("$.model").isEqualTo("gpt-5");
+    }
+
+    @Test
+    void streamEndsWithDoneAfterTheDeltas() {
+        List<ServerSentEvent<Map<String, Object>>> events = client.post().uri("/api/chat/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(Map.of("message", "Hello"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {
+                })
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(events).isNotEmpty();
+        assertThat(events).last().extracting(ServerSentEvent::event).isEqualTo(new StreamEvent.Done(null).name());
+        assertThat(events).allSatisfy(event -> assertThat(event.id()).isNotBlank());
+        String text = events.stream()
+                .filter(event -> "delta".equals(event.event()))
+                .map(event -> (String) event.data().get("text"))
+                .collect(Collectors.joining());
+        assertThat(text).isEqualTo(STUB_ANSWER);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ai.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal closed-loop load generator for the blocking chat endpoints.
+ * <p>
+ * Start the application against the stub model, once with platform threads and once with
+ * virtual threads, and compare the reported throughput and p99:
+ * <pre>
+ * VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run -Dspring-boot.run.profiles=stub-model
+ * VIRTUAL_THREADS_ENABLED=true  ./mvnw spring-boot:run -Dspring-boot.run.profiles=stub-model
+ *
+ * java ... com.ai.example.loadtest.ChatLoadGenerator http://localhost:8080/api/chat/custom 1000 5000
+ * </pre>
+ * Arguments: target URL, concurrency, total requests. Every request carries a unique message
+ * so the response cache and request coalescing do not hide the model latency.
+ */
+public class ChatLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/chat/custom";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int total = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(total));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                permits.acquire();
+                String body = "{\"message\": \"load test request " + i + "\"}";
+                futures.add(executor.submit(() -> {
+                    long began = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies.add(System.nanoTime() - began);
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("requests=%d concurrency=%d failures=%d%n", total, concurrency, failures.get());
+        System.out.printf("throughput=%.1f req/s%n", total / seconds);
+        System.out.printf("p50=%d ms p99=%d ms max=%d ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return Duration.ofNanos(sorted.get(Math.max(index, 0))).toMillis();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ai.example.loadtest;
+
+import com.ai.example.concurrent.SingleFlight;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load generator for request coalescing: the same burst of duplicate prompts is sent
+ * once straight to a stub model and once through {@link SingleFlight}, and the upstream calls,
+ * throughput and latency of both runs are reported side by side.
+ * <p>
+ * The stub answers after a fixed latency and, like a rate-limited provider, serves a bounded
+ * number of calls at a time, so duplicates that are not coalesced queue behind each other.
+ * <pre>
+ * java ... com.ai.example.loadtest.SingleFlightLoadGenerator 200 5000 20 300 16
+ * </pre>
+ * Arguments: concurrency, total requests, distinct prompts, model latency in milliseconds,
+ * concurrent model calls.
+ */
+public class SingleFlightLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int total = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int prompts = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        Duration latency = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 300);
+        int upstreamConcurrency = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+
+        StubModel direct = new StubModel(latency, upstreamConcurrency);
+        run("direct", direct::call, direct, concurrency, total, prompts);
+
+        StubModel coalesced = new StubModel(latency, upstreamConcurrency);
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        run("single-flight", prompt -> flights.call(prompt, () -> coalesced.call(prompt)), coalesced,
+                concurrency, total, prompts);
+    }
+
+    private static void run(String name, Function<String, String> chat, StubModel model, int concurrency,
+                            int total, int prompts) throws Exception {
+        Semaphore permits = new Semaphore(concurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(total));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                permits.acquire();
+                String prompt = "load test prompt " + i % prompts;
+                futures.add(executor.submit(() -> {
+                    long began = System.nanoTime();
+                    try {
+                        chat.apply(prompt);
+                    } finally {
+                        latencies.add(System.nanoTime() - began);
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%s: requests=%d concurrency=%d prompts=%d upstream calls=%d%n",
+                name, total, concurrency, prompts, model.calls.get());
+        System.out.printf("%s: throughput=%.1f req/s p50=%d ms p99=%d ms max=%d ms%n", name, total / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return Duration.ofNanos(sorted.get(Math.max(index, 0))).toMillis();
+    }
+
+    /**
+     * Answers after a fixed latency, serving at most {@code concurrency} calls at a time.
+     */
+    private static final class StubModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Duration latency;
+        private final Semaphore slots;
+
+        StubModel(Duration latency, int concurrency) {
+            this.latency = latency;
+            this.slots = new Semaphore(concurrency, true);
+        }
+
+        String call(String prompt) {
+            calls.incrementAndGet();
+            try {
+                slots.acquire();
+                try {
+                    Thread.sleep(latency.toMillis());
+                } finally {
+                    slots.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return "Stub answer to: " + prompt;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ai.example.service;
+
+import com.ai.example.cache.ExactResponseCache;
+import com.ai.example.cache.ResponseCache;
+import com.ai.example.cache.SemanticResponseCache;
+import com.ai.example.dto.AiChatResponse;
+import com.ai.example.dto.ChatRequest;
+import com.ai.example.stream.StreamFramer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenAiServiceCacheTests {
+
+    private static final StreamFramer STREAM_FRAMER = new StreamFramer(32, Duration.ofMillis(50));
+
+    private final CountingChatModel chatModel = new CountingChatModel();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void exactLayerServesRepeatedPrompts() {
+        OpenAiService service = new OpenAiService(chatModel,
+                new ExactResponseCache(100, Duration.ofMinutes(5), meterRegistry), STREAM_FRAMER);
+
+        AiChatResponse first = service.chat("What is Spring Boot?");
+        AiChatResponse second = service.chat("  what is   spring boot?  ");
+
+        assertThat(chatModel.calls.get()).isEqualTo(1);
+        assertThat(second.getResponse()).isEqualTo(first.getResponse());
+        assertThat(meterRegistry.get("ai.chat.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void exactLayerSeparatesDifferentOptions() {
+        OpenAiService service = new OpenAiService(chatModel,
+                new ExactResponseCache(100, Duration.ofMinutes(5), meterRegistry), STREAM_FRAMER);
+
+        service.chatWithOptions(new ChatRequest("Write a haiku", 0.2, 100));
+        service.chatWithOptions(new ChatRequest("Write a haiku", 0.9, 100));
+        service.chatWithOptions(new ChatRequest("Write a haiku", 0.2, 100));
+
+        assertThat(chatModel.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void exactLayerEvictsLeastRecentlyUsed() {
+        OpenAiService service = new OpenAiService(chatModel,
+                new ExactResponseCache(1, Duration.ofMinutes(5), meterRegistry), STREAM_FRAMER);
+
+        service.chat("first");
+        service.chat("second");
+        service.chat("first");
+
+        assertThat(chatModel.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void semanticLayerReusesNearDuplicates() {
+        ResponseCache cache = new ExactResponseCache(100, Duration.ofMinutes(5), meterRegistry)
+                .andThen(new SemanticResponseCache(new LetterEmbeddingModel(), 0.99, 100,
+                        Duration.ofMinutes(5), meterRegistry));
+        OpenAiService service = new OpenAiService(chatModel, cache, STREAM_FRAMER);
+
+        service.chat("What is Spring Boot?");
+        service.chat("What is Spring Boot!!");
+        service.chat("Tell me a joke about cats");
+
+        assertThat(chatModel.calls.get()).isEqualTo(2);
+    }
+
+    static class CountingChatModel implements ChatModel {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            int call = calls.incrementAndGet();
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("answer " + call))));
+        }
+    }
+
+    /**
+     * Embeds text as its letter histogram, so prompts differing only in punctuation are identical.
+     */
+    static class LetterEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            List<String> texts = request.getInstructions();
+            for (int i = 0; i < texts.size(); i++) {
+                embeddings.add(new Embedding(histogram(texts.get(i)), i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return histogram(document.getText());
+        }
+
+        private static float[] histogram(String text) {
+            float[] vector = new float[26];
+            for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+                if (c >= 'a' && c <= 'z') {
+                    vector[c - 'a']++;
+                }
+            }
+            return vector;
+        }
+    }
+}
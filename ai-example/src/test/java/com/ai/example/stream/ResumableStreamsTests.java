@@ -0,0 +1,74 @@
+package com.ai.example.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumableStreamsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void reconnectContinuesAfterTheLastEventWithoutANewUpstreamCall() {
+        ResumableStreams streams = new ResumableStreams(16, DataSize.ofMegabytes(1), Duration.ofMinutes(5),
+                meterRegistry, Clock.systemUTC());
+
+        // the client drops after the first event
+        ServerSentEvent<StreamEvent> first = streams.start(answer("Once", " upon", " a time")).blockFirst();
+        List<ServerSentEvent<StreamEvent>> rest = streams.resume(first.id()).collectList().block();
+
+        assertThat(first.data()).isEqualTo(new StreamEvent.Delta("Once"));
+        assertThat(rest).extracting(ServerSentEvent::data)
+                .containsExactly(new StreamEvent.Delta(" upon"), new StreamEvent.Delta(" a time"), new StreamEvent.Done("STOP"));
+        assertThat(rest.getFirst().id()).isEqualTo(first.id().replace(":1", ":2"));
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.chat.stream.resumes").tag("result", "resumed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsThatLeftTheRingOrExpiredCannotBeResumed() {
+        ResumableStreams small = new ResumableStreams(2, DataSize.ofMegabytes(1), Duration.ofMinutes(5),
+                meterRegistry, Clock.systemUTC());
+        List<ServerSentEvent<StreamEvent>> events = small.start(answer("a", "b", "c")).collectList().block();
+        assertThat(small.resume(events.getFirst().id())).isNull();
+        assertThat(small.resume(events.get(2).id())).isNotNull();
+
+        ResumableStreams expiring = new ResumableStreams(16, DataSize.ofMegabytes(1), Duration.ZERO,
+                meterRegistry, Clock.systemUTC());
+        String id = expiring.start(answer("a")).blockFirst().id();
+        assertThat(expiring.resume(id)).isNull();
+        assertThat(expiring.resume("unknown:1")).isNull();
+    }
+
+    @Test
+    void finishedBuffersAreEvictedToStayWithinTheByteBudget() {
+        ResumableStreams streams = new ResumableStreams(16, DataSize.ofBytes(1_000), Duration.ofMinutes(5),
+                meterRegistry, Clock.systemUTC());
+        String first = streams.start(answer("x".repeat(600))).blockLast().id();
+
+        streams.start(answer("y")).blockLast();
+
+        assertThat(streams.resume(first)).isNull();
+        assertThat(streams.bufferedBytes()).isLessThan(1_000);
+        assertThat(meterRegistry.get("ai.chat.stream.buffer.evictions").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.chat.stream.buffer.bytes").gauge().value()).isEqualTo(streams.bufferedBytes());
+    }
+
+    private Flux<StreamEvent> answer(String... deltas) {
+        return Flux.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return Flux.fromArray(deltas).<StreamEvent>map(StreamEvent.Delta::new)
+                    .concatWith(Flux.just(new StreamEvent.Done("STOP")));
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.ai.example.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamFramerTests {
+
+    @Test
+    void fragmentsWithinTheWindowBecomeOneFrameAndEmptyChunksAreDropped() {
+        StreamFramer framer = new StreamFramer(32, Duration.ofSeconds(1));
+
+        List<StreamEvent> events = framer.frame(Flux.just(chunk("Hel"), chunk(""), chunk("lo"), chunk(" world")))
+                .collectList().block();
+
+        assertThat(events).containsExactly(new StreamEvent.Delta("Hello world"), new StreamEvent.Done(null));
+    }
+
+    @Test
+    void framesAreCutAfterMaxDeltasAndAfterTheWindow() {
+        StreamFramer framer = new StreamFramer(2, Duration.ofMillis(50));
+        Flux<ChatResponse> upstream = Flux.concat(
+                Flux.just(chunk("a"), chunk("b"), chunk("c")),
+                Flux.just(chunk("d")).delaySubscription(Duration.ofMillis(200)));
+
+        List<StreamEvent> events = framer.frame(upstream).collectList().block();
+
+        assertThat(events).containsExactly(new StreamEvent.Delta("ab"), new StreamEvent.Delta("c"),
+                new StreamEvent.Delta("d"), new StreamEvent.Done(null));
+    }
+
+    @Test
+    void usageAndFinishReasonFollowTheDeltas() {
+        StreamFramer framer = new StreamFramer(32, Duration.ofMillis(50));
+        ChatResponse last = new ChatResponse(
+                List.of(new Generation(new AssistantMessage(""),
+                        ChatGenerationMetadata.builder().finishReason("STOP").build())),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(12, 3, 15)).build());
+
+        List<StreamEvent> events = framer.frame(Flux.just(chunk("Hi"), last)).collectList().block();
+
+        assertThat(events).containsExactly(new StreamEvent.Delta("Hi"), new StreamEvent.Usage(12, 3, 15),
+                new StreamEvent.Done("STOP"));
+    }
+
+    private static ChatResponse chunk(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
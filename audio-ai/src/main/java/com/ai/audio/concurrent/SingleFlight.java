@@ -0,0 +1,75 @@
+package com.ai.audio.concurrent;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests with the same key into a single upstream call.
+ * <p>
+ * Blocking callers that arrive while a call is in flight wait for, and share, its result.
+ * Streaming callers share one upstream {@link Flux}; late subscribers first receive the
+ * elements already emitted and then follow the live stream. The key is forgotten as soon as
+ * the upstream call terminates, so nothing is cached beyond the lifetime of the call.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Map<K, Flux<V>> streams = new ConcurrentHashMap<>();
+
+    public V call(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    public Flux<V> stream(K key, Supplier<Flux<V>> source) {
+        return Flux.defer(() -> streams.computeIfAbsent(key, k -> share(k, source.get())));
+    }
+
+    public int inFlight() {
+        return calls.size() + streams.size();
+    }
+
+    private Flux<V> share(K key, Flux<V> upstream) {
+        AtomicReference<Flux<V>> self = new AtomicReference<>();
+        Flux<V> shared = upstream
+                .doFinally(signal -> streams.remove(key, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+        return shared;
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ai.audio.config;
+
+import org.springframework.ai.openai.audio.speech.Speech;
+import org.springframework.ai.openai.audio.speech.SpeechModel;
+import org.springframework.ai.openai.audio.speech.SpeechPrompt;
+import org.springframework.ai.openai.audio.speech.SpeechResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+
+/**
+ * Replaces the OpenAI speech model with a local stub that "speaks" 60 ms of a 24 kHz 16-bit
+ * PCM tone per character. Streamed audio starts after {@code ai.stub-model.speech-latency} and
+ * arrives in 100 ms slices at twice real time, so the time to first audio of the streaming
+ * endpoint can be measured without calling, or paying for, the real model. The stub always
+ * returns PCM, whatever format was asked for.
+ * <p>
+ * Activate with {@code --spring.profiles.active=stub-model}.
+ */
+@Configuration
+@Profile("stub-model")
+public class StubSpeechModelConfiguration {
+
+    private static final int SAMPLE_RATE = 24000;
+    private static final int SLICE_SAMPLES = SAMPLE_RATE / 10;
+
+    @Value("${ai.stub-model.speech-latency:PT0.5S}")
+    private Duration latency;
+
+    @Bean
+    @Primary
+    public SpeechModel stubSpeechModel() {
+        return new SpeechModel() {
+            @Override
+            public SpeechResponse call(SpeechPrompt prompt) {
+                return new SpeechResponse(new Speech(tone(samples(prompt))));
+            }
+
+            @Override
+            public Flux<SpeechResponse> stream(SpeechPrompt prompt) {
+                int samples = samples(prompt);
+                int slices = (samples + SLICE_SAMPLES - 1) / SLICE_SAMPLES;
+                return Flux.range(0, slices)
+                        .delayElements(Duration.ofMillis(50))
+                        .delaySubscription(latency)
+                        .map(slice -> new SpeechResponse(new Speech(
+                                tone(Math.min(SLICE_SAMPLES, samples - slice * SLICE_SAMPLES)))));
+            }
+        };
+    }
+
+    private static int samples(SpeechPrompt prompt) {
+        return prompt.getInstructions().getText().length() * SAMPLE_RATE * 60 / 1000;
+    }
+
+    private static byte[] tone(int samples) {
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            pcm.putShort((short) (4000 * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE)));
+        }
+        return pcm.array();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ai.audio.config;
+
+import org.springframework.ai.audio.transcription.AudioTranscription;
+import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
+import org.springframework.ai.audio.transcription.AudioTranscriptionResponse;
+import org.springframework.ai.audio.transcription.TranscriptionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Replaces the OpenAI transcription model with a local stub that reads the audio through a small
+ * buffer and answers with its size after a fixed delay. Used to test uploads of any size without
+ * calling, or paying for, the real model.
+ * <p>
+ * Activate with {@code --spring.profiles.active=stub-model}.
+ */
+@Configuration
+@Profile("stub-model")
+public class StubTranscriptionModelConfiguration {
+
+    @Value("${ai.stub-model.latency:PT2S}")
+    private Duration latency;
+
+    @Bean
+    @Primary
+    public TranscriptionModel stubTranscriptionModel() {
+        return new TranscriptionModel() {
+            @Override
+            public AudioTranscriptionResponse call(AudioTranscriptionPrompt prompt) {
+                long bytes = read(prompt);
+                try {
+                    Thread.sleep(latency.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new AudioTranscriptionResponse(new AudioTranscription("Stub transcript of " + bytes + " bytes"));
+            }
+        };
+    }
+
+    private static long read(AudioTranscriptionPrompt prompt) {
+        byte[] buffer = new byte[8192];
+        long bytes = 0;
+        try (InputStream in = prompt.getInstructions().getInputStream()) {
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                bytes += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+}
@@ -3,18 +3,36 @@ package com.ai.audio.controller;
 import com.ai.audio.dto.AudioChatRequest;
 import com.ai.audio.dto.AudioChatResponse;
 import com.ai.audio.dto.SimpleTextRequest;
+import com.ai.audio.dto.TextToAudioRequest;
 import com.ai.audio.service.AudioService;
+import com.ai.audio.service.AudioTooLargeException;
+import com.ai.audio.service.TranscriptionService;
+import com.ai.audio.speech.SpeechStreamer;
+import com.ai.audio.stream.ResumableStreams;
+import com.ai.audio.stream.StreamEvent;
+import com.ai.audio.transcription.ChunkedTranscriber;
+import com.ai.audio.transcription.TranscriptEvent;
+import com.ai.audio.upload.AudioUploadStore;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/audio")
@@ -23,9 +41,21 @@ public class AudioController {
     private static final Logger logger = LoggerFactory.getLogger(AudioController.class);
     
     private final AudioService audioService;
+    private final ResumableStreams resumableStreams;
+    private final TranscriptionService transcriptionService;
+    private final AudioUploadStore uploadStore;
+    private final ChunkedTranscriber chunkedTranscriber;
+    private final SpeechStreamer speechStreamer;
     
-    public AudioController(AudioService audioService) {
+    public AudioController(AudioService audioService, ResumableStreams resumableStreams,
+                           TranscriptionService transcriptionService, AudioUploadStore uploadStore,
+                           ChunkedTranscriber chunkedTranscriber, SpeechStreamer speechStreamer) {
         this.audioService = audioService;
+        this.resumableStreams = resumableStreams;
+        this.transcriptionService = transcriptionService;
+        this.uploadStore = uploadStore;
+        this.chunkedTranscriber = chunkedTranscriber;
+        this.speechStreamer = speechStreamer;
     }
     
     /**
@@ -120,17 +150,27 @@ public class AudioController {
      * Streaming chat endpoint
      * POST /api/audio/chat/stream
      * Body: {"message": "Your question"}
-     * Returns: Server-Sent Events (SSE)
+     * Returns: Server-Sent Events (SSE) "delta" {"text"}, "usage" {"promptTokens",
+     * "completionTokens", "totalTokens"}, "done" {"finishReason"}, or "error" {"message"}
+     * Reconnect: repeat the request with the Last-Event-ID header to continue the same answer
      */
     @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> streamChat(@RequestBody SimpleTextRequest request) {
+    public Flux<ServerSentEvent<StreamEvent>> streamChat(@RequestBody SimpleTextRequest request,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (lastEventId != null) {
+            Flux<ServerSentEvent<StreamEvent>> resumed = resumableStreams.resume(lastEventId);
+            if (resumed != null) {
+                logger.info("Resuming streaming chat after event {}", lastEventId);
+                return resumed;
+            }
+        }
         logger.info("Received streaming chat request");
         
-        return audioService.streamChat(request.getMessage())
+        return resumableStreams.start(audioService.streamChat(request.getMessage())
                 .onErrorResume(e -> {
                     logger.error("Error in streaming chat", e);
-                    return Flux.just("Error: " + e.getMessage());
-                });
+                    return Flux.just(new StreamEvent.Failure(e.getMessage()));
+                }));
     }
     
     /**
@@ -189,6 +229,185 @@ public class AudioController {
         }
     }
     
+    /**
+     * Transcribe an uploaded recording
+     * POST /api/audio/transcriptions (multipart/form-data)
+     * Parts: file (the audio), language (optional, e.g. "en"), prompt (optional)
+     */
+    @PostMapping(value = "/transcriptions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> transcribeUpload(@RequestParam("file") MultipartFile file,
+                                                                @RequestParam(required = false) String language,
+                                                                @RequestParam(required = false) String prompt) {
+        logger.info("Received multipart transcription request ({} bytes)", file.getSize());
+        
+        return transcribe(() -> uploadStore.store(file, AudioUploadStore.format(file.getOriginalFilename())),
+                language, prompt);
+    }
+    
+    /**
+     * Transcribe a recording sent as the raw request body
+     * POST /api/audio/transcriptions?language=en
+     * Content-Type: audio/mpeg, audio/wav, ... or application/octet-stream (then ?format=mp3)
+     */
+    @PostMapping(value = "/transcriptions", consumes = {"audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> transcribeBody(HttpServletRequest request,
+                                                              @RequestParam(required = false) String format,
+                                                              @RequestParam(required = false) String language,
+                                                              @RequestParam(required = false) String prompt) {
+        logger.info("Received raw transcription request ({} bytes)", request.getContentLengthLong());
+        
+        String audioFormat = AudioUploadStore.format(format != null ? format : request.getContentType());
+        return transcribe(() -> uploadStore.store(request.getInputStream(), audioFormat), language, prompt);
+    }
+    
+    private ResponseEntity<Map<String, Object>> transcribe(Upload upload, String language, String prompt) {
+        Path audio = null;
+        try {
+            audio = upload.store();
+            String text = transcriptionService.transcribe(audio, language, prompt);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("text", text);
+            result.put("bytes", Files.size(audio));
+            return ResponseEntity.ok(result);
+        } catch (MaxUploadSizeExceededException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Audio exceeds the maximum size of " + e.getMaxUploadSize() + " bytes");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+        } catch (AudioTooLargeException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+        } catch (Exception e) {
+            logger.error("Error processing transcription", e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        } finally {
+            if (audio != null) {
+                uploadStore.delete(audio);
+            }
+        }
+    }
+    
+    /**
+     * Transcribe a long recording in parallel segments, streaming the text as it is ready
+     * POST /api/audio/transcriptions/stream (multipart/form-data, same parts as /transcriptions)
+     * Returns: Server-Sent Events "partial" {"segment", "startSeconds", "endSeconds", "text"},
+     * then "done" {"text", "segments", "seconds"}, or "error" {"message"}
+     */
+    @PostMapping(value = "/transcriptions/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<TranscriptEvent>>> streamTranscriptionUpload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) String prompt) {
+        logger.info("Received multipart streaming transcription request ({} bytes)", file.getSize());
+        
+        String audioFormat = AudioUploadStore.format(file.getOriginalFilename());
+        return streamTranscription(() -> uploadStore.store(file, audioFormat), audioFormat, language, prompt);
+    }
+    
+    /**
+     * Transcribe a long recording sent as the raw request body, streaming the text as it is ready
+     * POST /api/audio/transcriptions/stream?language=en
+     * Content-Type: audio/wav, ... or application/octet-stream (then ?format=wav, or ?format=pcm
+     * for 16-bit mono PCM)
+     */
+    @PostMapping(value = "/transcriptions/stream", consumes = {"audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<TranscriptEvent>>> streamTranscriptionBody(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) String prompt) {
+        logger.info("Received raw streaming transcription request ({} bytes)", request.getContentLengthLong());
+        
+        String audioFormat = AudioUploadStore.format(format != null ? format : request.getContentType());
+        return streamTranscription(() -> uploadStore.store(request.getInputStream(), audioFormat),
+                audioFormat, language, prompt);
+    }
+    
+    private ResponseEntity<Flux<ServerSentEvent<TranscriptEvent>>> streamTranscription(Upload upload, String format,
+                                                                                      String language, String prompt) {
+        Path audio;
+        try {
+            audio = upload.store();
+        } catch (MaxUploadSizeExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Flux.just(sse(new TranscriptEvent.Failure(
+                    "Audio exceeds the maximum size of " + e.getMaxUploadSize() + " bytes"))));
+        } catch (Exception e) {
+            logger.error("Error receiving audio for transcription", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Flux.just(sse(new TranscriptEvent.Failure(e.getMessage()))));
+        }
+        if (!ChunkedTranscriber.segmentable(format)) {
+            // only WAV and PCM are cut into segments; anything else goes upstream in one request
+            try {
+                transcriptionService.checkSize(audio);
+            } catch (RuntimeException e) {
+                uploadStore.delete(audio);
+                HttpStatus status = e instanceof AudioTooLargeException
+                        ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.INTERNAL_SERVER_ERROR;
+                return ResponseEntity.status(status).body(Flux.just(sse(new TranscriptEvent.Failure(e.getMessage()))));
+            }
+        }
+        
+        return ResponseEntity.ok(chunkedTranscriber.transcribe(audio, format, language, prompt)
+                .onErrorResume(e -> {
+                    logger.error("Error in streaming transcription", e);
+                    return Flux.just(new TranscriptEvent.Failure(e.getMessage()));
+                })
+                .doFinally(signal -> uploadStore.delete(audio))
+                .map(AudioController::sse));
+    }
+    
+    private static ServerSentEvent<TranscriptEvent> sse(TranscriptEvent event) {
+        return ServerSentEvent.builder(event).event(event.name()).build();
+    }
+    
+    @FunctionalInterface
+    private interface Upload {
+        Path store() throws IOException;
+    }
+    
+    /**
+     * Speak text, streaming the audio while later sentences are still being synthesized
+     * POST /api/audio/speech/stream
+     * Body: {"text": "...", "voice": "alloy", "audioFormat": "mp3" or "pcm16", "speed": 1.0}
+     * Returns: chunked audio/mpeg, or 24 kHz 16-bit little-endian mono PCM
+     */
+    @PostMapping("/speech/stream")
+    public ResponseEntity<?> streamSpeech(@RequestBody TextToAudioRequest request) {
+        logger.info("Received streaming speech request");
+        
+        Flux<byte[]> audio;
+        String format;
+        try {
+            format = SpeechStreamer.format(request.getAudioFormat());
+            audio = speechStreamer.synthesize(request);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        StreamingResponseBody body = out -> {
+            try (Stream<byte[]> chunks = audio.toStream(1)) {
+                for (byte[] chunk : (Iterable<byte[]>) chunks::iterator) {
+                    out.write(chunk);
+                    out.flush();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error in streaming speech", e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(SpeechStreamer.contentType(format)))
+                .body(body);
+    }
+    
     /**
      * Get available voices for audio generation
      * GET /api/audio/voices
@@ -1,5 +1,10 @@
 package com.ai.audio.dto;
 
+/**
+ * @deprecated base64 in JSON inflates the upload by a third and holds it in the heap twice;
+ * post the audio itself to {@code /api/audio/transcriptions} instead
+ */
+@Deprecated
 public class AudioTranscriptionRequest {
     private String audioBase64;
     private String audioFormat; // "mp3", "wav", "m4a", "webm", etc.
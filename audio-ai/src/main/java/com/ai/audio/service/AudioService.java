@@ -1,10 +1,14 @@
 package com.ai.audio.service;
 
+import com.ai.audio.concurrent.SingleFlight;
 import com.ai.audio.dto.AudioChatRequest;
 import com.ai.audio.dto.AudioChatResponse;
+import com.ai.audio.stream.StreamEvent;
+import com.ai.audio.stream.StreamFramer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.ai.openai.api.OpenAiApi;
@@ -22,17 +26,26 @@ public class AudioService {
     private static final Logger logger = LoggerFactory.getLogger(AudioService.class);
     
     private final ChatModel chatModel;
+    private final SingleFlight<PromptKey, String> chatFlights = new SingleFlight<>();
+    private final SingleFlight<PromptKey, ChatResponse> streamFlights = new SingleFlight<>();
+    private final StreamFramer streamFramer;
     
-    public AudioService(ChatModel chatModel) {
+    public AudioService(ChatModel chatModel, StreamFramer streamFramer) {
         this.chatModel = chatModel;
+        this.streamFramer = streamFramer;
     }
     
     /**
-     * Simple chat with gpt-4o-audio-preview model
+     * Simple chat with gpt-4o-audio-preview model.
+     * Concurrent identical prompts share one upstream call.
      */
     public String simpleChat(String message) {
         logger.info("Processing simple chat request with message: {}", message);
         
+        return chatFlights.call(new PromptKey(message, 0.7, null), () -> callSimpleChat(message));
+    }
+    
+    private String callSimpleChat(String message) {
         var options = OpenAiChatOptions.builder()
                 .model("gpt-4o-audio-preview")
                 .temperature(0.7)
@@ -84,6 +97,11 @@ public class AudioService {
     public String chatWithOptions(String message, Double temperature, Integer maxTokens) {
         logger.info("Processing chat with custom options - temp: {}, maxTokens: {}", temperature, maxTokens);
         
+        return chatFlights.call(new PromptKey(message, temperature, maxTokens),
+                () -> callWithOptions(message, temperature, maxTokens));
+    }
+    
+    private String callWithOptions(String message, Double temperature, Integer maxTokens) {
         var optionsBuilder = OpenAiChatOptions.builder()
                 .model("gpt-4o-audio-preview");
         
@@ -103,23 +121,22 @@ public class AudioService {
     }
     
     /**
-     * Streaming chat response
+     * Streaming chat response as coalesced delta frames followed by usage and done events.
+     * Concurrent streams for the same prompt share one upstream stream; late subscribers replay
+     * the chunks emitted so far.
      */
-    public Flux<String> streamChat(String message) {
+    public Flux<StreamEvent> streamChat(String message) {
         logger.info("Processing streaming chat request");
         
         var options = OpenAiChatOptions.builder()
                 .model("gpt-4o-audio-preview")
                 .temperature(0.7)
+                .streamUsage(true)
                 .build();
         
         var prompt = new Prompt(message, options);
         
-        return chatModel.stream(prompt)
-                .map(chatResponse -> {
-                    var content = chatResponse.getResult().getOutput().getText();
-                    return content != null ? content : "";
-                });
+        return streamFramer.frame(streamFlights.stream(new PromptKey(message, 0.7, null), () -> chatModel.stream(prompt)));
     }
     
     /**
@@ -163,4 +180,10 @@ public class AudioService {
         
         return response.getResult().getOutput().getText();
     }
+    
+    /**
+     * Fingerprint of a prompt and the options it is sent with, used to coalesce identical requests
+     */
+    private record PromptKey(String message, Double temperature, Integer maxTokens) {
+    }
 }
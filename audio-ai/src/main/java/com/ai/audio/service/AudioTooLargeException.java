@@ -0,0 +1,11 @@
+package com.ai.audio.service;
+
+/**
+ * Thrown before calling the model for audio larger than one upstream transcription request may be.
+ */
+public class AudioTooLargeException extends RuntimeException {
+
+    public AudioTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ai.audio.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
+import org.springframework.ai.audio.transcription.TranscriptionModel;
+import org.springframework.ai.openai.OpenAiAudioTranscriptionOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Transcribes audio files spooled by {@link com.ai.audio.upload.AudioUploadStore}. The file is
+ * handed to the model as a resource, but the OpenAI client reads it into one byte array to upload
+ * it, and the API takes at most {@code ai.audio.transcription.max-upstream-size} (25 MB) per
+ * request. Larger files are rejected with {@link AudioTooLargeException} before the model is
+ * called; long recordings have to go through the segmented path of
+ * {@link com.ai.audio.transcription.ChunkedTranscriber}.
+ */
+@Service
+public class TranscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptionService.class);
+
+    private final TranscriptionModel transcriptionModel;
+    private final DataSize maxUpstreamSize;
+
+    public TranscriptionService(TranscriptionModel transcriptionModel,
+                                @Value("${ai.audio.transcription.max-upstream-size:25MB}") DataSize maxUpstreamSize) {
+        this.transcriptionModel = transcriptionModel;
+        this.maxUpstreamSize = maxUpstreamSize;
+    }
+
+    /**
+     * @throws AudioTooLargeException if the file is larger than one upstream request may be
+     */
+    public void checkSize(Path audio) {
+        long size;
+        try {
+            size = Files.size(audio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (size > maxUpstreamSize.toBytes()) {
+            throw new AudioTooLargeException(String.format("Audio is %d MB, more than the %d MB the transcription "
+                            + "model accepts in one request. Send WAV or 16-bit PCM to /api/audio/transcriptions/stream "
+                            + "to have it transcribed in segments.",
+                    DataSize.ofBytes(size).toMegabytes(), maxUpstreamSize.toMegabytes()));
+        }
+    }
+
+    /**
+     * @param language optional ISO-639-1 language of the audio
+     * @param prompt   optional text to guide the transcription
+     * @throws AudioTooLargeException if the file is larger than one upstream request may be
+     */
+    public String transcribe(Path audio, String language, String prompt) {
+        checkSize(audio);
+        logger.info("Transcribing {}", audio.getFileName());
+
+        var options = OpenAiAudioTranscriptionOptions.builder()
+                .language(language)
+                .prompt(prompt)
+                .build();
+
+        var response = transcriptionModel.call(new AudioTranscriptionPrompt(new FileSystemResource(audio), options));
+        return response.getResult().getOutput();
+    }
+}
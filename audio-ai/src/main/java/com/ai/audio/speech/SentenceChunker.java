@@ -0,0 +1,59 @@
+package com.ai.audio.speech;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text for speech synthesis at sentence boundaries. The first chunk is kept short so that
+ * its audio, and playback, can start early; later sentences are packed into chunks of up to
+ * {@code maxChars}. A sentence longer than a chunk is split after a comma, semicolon or colon,
+ * or else at a space.
+ */
+public final class SentenceChunker {
+
+    private SentenceChunker() {
+    }
+
+    public static List<String> split(String text, int firstChunkChars, int maxChunkChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+        sentences.setText(text);
+        for (int start = sentences.first(), end = sentences.next(); end != BreakIterator.DONE;
+             start = end, end = sentences.next()) {
+            String sentence = text.substring(start, end).strip();
+            while (!sentence.isEmpty()) {
+                int limit = chunks.isEmpty() ? firstChunkChars : maxChunkChars;
+                if (!chunk.isEmpty() && chunk.length() + 1 + sentence.length() > limit) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                    limit = maxChunkChars;
+                }
+                if (chunk.isEmpty() && sentence.length() > limit) {
+                    int cut = cut(sentence, limit);
+                    chunks.add(sentence.substring(0, cut).strip());
+                    sentence = sentence.substring(cut).strip();
+                } else {
+                    chunk.append(chunk.isEmpty() ? "" : " ").append(sentence);
+                    sentence = "";
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    private static int cut(String sentence, int limit) {
+        int clause = Math.max(sentence.lastIndexOf(", ", limit - 1),
+                Math.max(sentence.lastIndexOf("; ", limit - 1), sentence.lastIndexOf(": ", limit - 1)));
+        if (clause > limit / 3) {
+            return clause + 1;
+        }
+        int space = sentence.lastIndexOf(' ', limit);
+        return space > 0 ? space : limit;
+    }
+}
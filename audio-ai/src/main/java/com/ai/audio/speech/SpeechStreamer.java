@@ -0,0 +1,114 @@
+package com.ai.audio.speech;
+
+import com.ai.audio.dto.TextToAudioRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.openai.OpenAiAudioSpeechOptions;
+import org.springframework.ai.openai.api.OpenAiAudioApi.SpeechRequest.AudioResponseFormat;
+import org.springframework.ai.openai.api.OpenAiAudioApi.SpeechRequest.Voice;
+import org.springframework.ai.openai.audio.speech.SpeechModel;
+import org.springframework.ai.openai.audio.speech.SpeechPrompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Synthesizes long text as a stream of audio that can be played while the rest is generated.
+ * The text is cut into sentence chunks by {@link SentenceChunker}; up to {@code lookahead}
+ * chunks are synthesized at once, each streamed from the model as it is generated, and their
+ * audio is emitted strictly in order. Only formats whose chunks can simply be concatenated are
+ * offered: {@code mp3} (MPEG frames) and {@code pcm16} (raw 24 kHz 16-bit little-endian mono).
+ * <p>
+ * The time from the request to its first audio bytes is recorded as
+ * {@code ai.audio.speech.first-audio{format}}.
+ */
+@Service
+public class SpeechStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeechStreamer.class);
+
+    private final SpeechModel speechModel;
+    private final MeterRegistry meterRegistry;
+    private final String model;
+    private final int lookahead;
+    private final int firstChunkChars;
+    private final int maxChunkChars;
+
+    public SpeechStreamer(SpeechModel speechModel, MeterRegistry meterRegistry,
+                          @Value("${ai.audio.speech.model:tts-1}") String model,
+                          @Value("${ai.audio.speech.lookahead:3}") int lookahead,
+                          @Value("${ai.audio.speech.first-chunk-chars:120}") int firstChunkChars,
+                          @Value("${ai.audio.speech.max-chunk-chars:600}") int maxChunkChars) {
+        this.speechModel = speechModel;
+        this.meterRegistry = meterRegistry;
+        this.model = model;
+        this.lookahead = lookahead;
+        this.firstChunkChars = firstChunkChars;
+        this.maxChunkChars = maxChunkChars;
+    }
+
+    /**
+     * @return "mp3" or "pcm16" for a requested format (default mp3)
+     * @throws IllegalArgumentException for formats that cannot be streamed
+     */
+    public static String format(String audioFormat) {
+        String format = audioFormat == null ? "mp3" : audioFormat.toLowerCase(Locale.ROOT);
+        return switch (format) {
+            case "mp3" -> "mp3";
+            case "pcm", "pcm16" -> "pcm16";
+            default -> throw new IllegalArgumentException("Audio format " + audioFormat
+                    + " cannot be streamed, use mp3 or pcm16");
+        };
+    }
+
+    public static String contentType(String format) {
+        return format.equals("pcm16") ? "audio/pcm;rate=24000;bits=16;channels=1" : "audio/mpeg";
+    }
+
+    /**
+     * @throws IllegalArgumentException for empty text, an unknown voice or a format that cannot be
+     *                                  streamed
+     */
+    public Flux<byte[]> synthesize(TextToAudioRequest request) {
+        String format = format(request.getAudioFormat());
+        String text = request.getText();
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Text cannot be empty");
+        }
+        List<String> chunks = SentenceChunker.split(text, firstChunkChars, maxChunkChars);
+        var options = OpenAiAudioSpeechOptions.builder()
+                .model(model)
+                .voice(Voice.valueOf((request.getVoice() != null ? request.getVoice() : "alloy").toUpperCase(Locale.ROOT)))
+                .responseFormat(format.equals("pcm16") ? AudioResponseFormat.PCM : AudioResponseFormat.MP3)
+                .speed(request.getSpeed() != null ? request.getSpeed().floatValue() : null)
+                .build();
+        Timer firstAudio = Timer.builder("ai.audio.speech.first-audio")
+                .description("Time from a speech request to its first audio bytes")
+                .tag("format", format)
+                .register(meterRegistry);
+
+        return Flux.defer(() -> {
+            logger.info("Synthesizing {} characters as {} chunks of {}", text.length(), chunks.size(), format);
+            long started = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return Flux.fromIterable(chunks)
+                    .flatMapSequential(chunk -> speechModel.stream(new SpeechPrompt(chunk, options))
+                            .map(response -> response.getResult().getOutput())
+                            .subscribeOn(Schedulers.boundedElastic()), lookahead)
+                    .filter(bytes -> bytes.length > 0)
+                    .doOnNext(bytes -> {
+                        if (first.compareAndSet(true, false)) {
+                            firstAudio.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.ai.audio.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Structured events of a streamed chat completion; {@link #name()} is the SSE event name.
+ * A stream is any number of {@link Delta}s, an optional {@link Usage}, then {@link Done}
+ * (or {@link Failure} if the upstream failed).
+ */
+public sealed interface StreamEvent {
+
+    @JsonIgnore
+    String name();
+
+    /**
+     * One or more upstream token fragments, concatenated.
+     */
+    record Delta(String text) implements StreamEvent {
+        @Override
+        public String name() {
+            return "delta";
+        }
+    }
+
+    record Usage(Integer promptTokens, Integer completionTokens, Integer totalTokens) implements StreamEvent {
+        @Override
+        public String name() {
+            return "usage";
+        }
+    }
+
+    record Done(String finishReason) implements StreamEvent {
+        @Override
+        public String name() {
+            return "done";
+        }
+    }
+
+    record Failure(String message) implements StreamEvent {
+        @Override
+        public String name() {
+            return "error";
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ai.audio.transcription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits PCM audio into segments for parallel transcription, cutting in the middle of a pause
+ * where possible so that no word is split. A segment is cut at the first pause of at least
+ * {@code minSilence} after it is {@code target} long, or at {@code max} if there is none. Each
+ * segment after the first starts {@code overlap} before the cut, so a word cut at {@code max}
+ * is heard whole by one of the two segments.
+ * <p>
+ * The file is read once, in 20 ms windows through a fixed buffer; a window is silent when the
+ * RMS of its samples is below {@code silenceThreshold} (16-bit scale).
+ */
+public class AudioSegmenter {
+
+    private static final int WINDOW_MILLIS = 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Duration target;
+    private final Duration max;
+    private final Duration overlap;
+    private final Duration minSilence;
+    private final double silenceThreshold;
+
+    public AudioSegmenter(Duration target, Duration max, Duration overlap, Duration minSilence,
+                          double silenceThreshold) {
+        this.target = target;
+        this.max = max;
+        this.overlap = overlap;
+        this.minSilence = minSilence;
+        this.silenceThreshold = silenceThreshold;
+    }
+
+    /**
+     * A part of the audio, in frames; {@code startFrame} includes the overlap with the previous segment.
+     */
+    public record Segment(int index, long startFrame, long endFrame) {
+
+        public double startSeconds(WavFormat format) {
+            return (double) startFrame / format.sampleRate();
+        }
+
+        public double endSeconds(WavFormat format) {
+            return (double) endFrame / format.sampleRate();
+        }
+    }
+
+    public List<Segment> segment(Path file, WavFormat format) throws IOException {
+        int window = Math.max(1, format.sampleRate() * WINDOW_MILLIS / 1000);
+        long targetFrames = frames(target, format);
+        long maxFrames = Math.max(frames(max, format), targetFrames);
+        long overlapFrames = frames(overlap, format);
+        long minSilenceFrames = Math.max(window, frames(minSilence, format));
+        double threshold = silenceThreshold * silenceThreshold;
+
+        List<Long> cuts = new ArrayList<>();
+        long segmentStart = 0;
+        long silenceStart = -1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int windowBytes = window * format.frameSize();
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(windowBytes, BUFFER_SIZE - BUFFER_SIZE % windowBytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            long position = format.dataOffset();
+            long end = format.dataOffset() + format.frames() * format.frameSize();
+            long frame = 0;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= format.frameSize()) {
+                    int samples = Math.min(window, buffer.remaining() / format.frameSize()) * format.channels();
+                    double energy = 0;
+                    for (int i = 0; i < samples; i++) {
+                        double sample = buffer.getShort();
+                        energy += sample * sample;
+                    }
+                    long windowStart = frame;
+                    frame += samples / format.channels();
+
+                    if (energy / samples < threshold) {
+                        silenceStart = silenceStart < 0 ? windowStart : silenceStart;
+                    } else {
+                        // a pause just ended: cut in its middle if the segment is long enough
+                        long cut = (silenceStart + windowStart) / 2;
+                        if (silenceStart >= 0 && windowStart - silenceStart >= minSilenceFrames
+                                && cut - segmentStart >= targetFrames) {
+                            segmentStart = cut;
+                            cuts.add(cut);
+                        }
+                        silenceStart = -1;
+                    }
+                    if (frame - segmentStart >= maxFrames) {
+                        boolean pausing = silenceStart >= 0 && frame - silenceStart >= minSilenceFrames;
+                        segmentStart = pausing ? (silenceStart + frame) / 2 : frame;
+                        cuts.add(segmentStart);
+                        silenceStart = -1;
+                    }
+                }
+                // a short read can end inside a frame; read it again with the next one
+                position -= buffer.remaining();
+            }
+        }
+
+        long total = format.frames();
+        if (!cuts.isEmpty() && total - cuts.getLast() < window) {
+            cuts.removeLast();
+        }
+        List<Segment> segments = new ArrayList<>(cuts.size() + 1);
+        long start = 0;
+        for (long cut : cuts) {
+            segments.add(new Segment(segments.size(), Math.max(0, start - overlapFrames), cut));
+            start = cut;
+        }
+        segments.add(new Segment(segments.size(), Math.max(0, start - overlapFrames), total));
+        return segments;
+    }
+
+    private static long frames(Duration duration, WavFormat format) {
+        return duration.toMillis() * format.sampleRate() / 1000;
+    }
+}
@@ -0,0 +1,161 @@
+package com.ai.audio.transcription;
+
+import com.ai.audio.service.TranscriptionService;
+import com.ai.audio.transcription.AudioSegmenter.Segment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Transcribes long recordings as overlapping segments, {@code parallelism} at a time, so that an
+ * hour of audio takes roughly {@code 1/parallelism} of the time of one upstream job. Segments are
+ * cut from WAV and raw PCM ({@code pcm}, 16-bit little-endian, {@code pcm-sample-rate} Hz mono)
+ * by {@link AudioSegmenter}; each is written to its own WAV file only while it is transcribed.
+ * Other formats cannot be cut in-process and are transcribed whole.
+ * <p>
+ * Results are emitted in order as soon as every earlier segment is done, with the overlap removed
+ * by {@link TranscriptStitcher}. A segment that fails is retried {@code retries} times before the
+ * transcription fails. All transcriptions share {@code max-concurrent} upstream calls.
+ */
+@Service
+public class ChunkedTranscriber implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedTranscriber.class);
+
+    private static final int MAX_OVERLAP_WORDS = 30;
+
+    private final TranscriptionService transcriptionService;
+    private final AudioSegmenter segmenter;
+    private final int parallelism;
+    private final int retries;
+    private final int pcmSampleRate;
+    private final Scheduler scheduler;
+    private final Timer segmentTimer;
+
+    public ChunkedTranscriber(TranscriptionService transcriptionService, MeterRegistry meterRegistry,
+                              @Value("${ai.audio.transcription.chunked.parallelism:4}") int parallelism,
+                              @Value("${ai.audio.transcription.chunked.max-concurrent:16}") int maxConcurrent,
+                              @Value("${ai.audio.transcription.chunked.retries:1}") int retries,
+                              @Value("${ai.audio.transcription.chunked.segment:PT60S}") Duration segment,
+                              @Value("${ai.audio.transcription.chunked.max-segment:PT90S}") Duration maxSegment,
+                              @Value("${ai.audio.transcription.chunked.overlap:PT2S}") Duration overlap,
+                              @Value("${ai.audio.transcription.chunked.min-silence:PT0.3S}") Duration minSilence,
+                              @Value("${ai.audio.transcription.chunked.silence-threshold:500}") double silenceThreshold,
+                              @Value("${ai.audio.transcription.chunked.pcm-sample-rate:24000}") int pcmSampleRate) {
+        this.transcriptionService = transcriptionService;
+        this.segmenter = new AudioSegmenter(segment, maxSegment, overlap, minSilence, silenceThreshold);
+        this.parallelism = parallelism;
+        this.retries = retries;
+        this.pcmSampleRate = pcmSampleRate;
+        this.scheduler = Schedulers.newBoundedElastic(maxConcurrent, Integer.MAX_VALUE, "transcription");
+        this.segmentTimer = Timer.builder("ai.audio.transcription.segments")
+                .description("Upstream transcription of one segment")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param format   file extension of the audio, see {@link com.ai.audio.upload.AudioUploadStore#format}
+     * @param language optional ISO-639-1 language of the audio
+     * @param prompt   optional text to guide the transcription of every segment
+     */
+    public Flux<TranscriptEvent> transcribe(Path audio, String format, String language, String prompt) {
+        return Flux.defer(() -> {
+            try {
+                return transcribeSegments(audio, layout(audio, format), language, prompt);
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private Flux<TranscriptEvent> transcribeSegments(Path audio, WavFormat layout, String language, String prompt)
+            throws IOException {
+        if (layout == null) {
+            logger.info("Transcribing {} whole, it cannot be segmented", audio.getFileName());
+            return Mono.fromCallable(() -> transcriptionService.transcribe(audio, language, prompt))
+                    .subscribeOn(scheduler)
+                    .flatMapMany(text -> Flux.just(
+                            new TranscriptEvent.Partial(0, 0, 0, text.strip()),
+                            new TranscriptEvent.Done(text.strip(), 1, 0)));
+        }
+
+        List<Segment> segments = segmenter.segment(audio, layout);
+        double seconds = (double) layout.frames() / layout.sampleRate();
+        logger.info("Transcribing {} ({} s) as {} segments", audio.getFileName(), Math.round(seconds), segments.size());
+
+        StringBuilder text = new StringBuilder();
+        AtomicReference<String> previous = new AtomicReference<>("");
+        return Flux.fromIterable(segments)
+                .flatMapSequential(segment -> Mono.fromCallable(() -> transcribeSegment(audio, layout, segment, language, prompt))
+                        .subscribeOn(scheduler)
+                        .retry(retries)
+                        .map(result -> new Transcribed(segment, result)), parallelism, 1)
+                .map(transcribed -> {
+                    String partial = TranscriptStitcher.dedupe(previous.getAndSet(transcribed.text()),
+                            transcribed.text(), MAX_OVERLAP_WORDS);
+                    if (!partial.isEmpty()) {
+                        text.append(text.isEmpty() ? "" : " ").append(partial);
+                    }
+                    Segment segment = transcribed.segment();
+                    return (TranscriptEvent) new TranscriptEvent.Partial(segment.index(),
+                            segment.startSeconds(layout), segment.endSeconds(layout), partial);
+                })
+                .concatWith(Mono.fromSupplier(() -> new TranscriptEvent.Done(text.toString(), segments.size(), seconds)));
+    }
+
+    /**
+     * Whether recordings of the format are cut into segments rather than transcribed whole.
+     */
+    public static boolean segmentable(String format) {
+        return switch (format) {
+            case "wav", "pcm", "pcm16", "raw" -> true;
+            default -> false;
+        };
+    }
+
+    private WavFormat layout(Path audio, String format) throws IOException {
+        return switch (format) {
+            case "wav" -> WavFormat.read(audio);
+            case "pcm", "pcm16", "raw" -> WavFormat.pcm(audio, pcmSampleRate, 1);
+            default -> null;
+        };
+    }
+
+    private String transcribeSegment(Path audio, WavFormat layout, Segment segment, String language, String prompt)
+            throws IOException {
+        Path file = Files.createTempFile(audio.getParent(), "segment-", ".wav");
+        try {
+            layout.copy(audio, segment.startFrame(), segment.endFrame(), file);
+            return segmentTimer.recordCallable(() -> transcriptionService.transcribe(file, language, prompt));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private record Transcribed(Segment segment, String text) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.ai.audio.transcription;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Events of a streamed transcription; {@link #name()} is the SSE event name. A transcription is
+ * one {@link Partial} per segment, in order, then {@link Done} (or {@link Failure}).
+ */
+public sealed interface TranscriptEvent {
+
+    @JsonIgnore
+    String name();
+
+    /**
+     * The text of one segment, without the words already sent for the previous one.
+     */
+    record Partial(int segment, double startSeconds, double endSeconds, String text) implements TranscriptEvent {
+        @Override
+        public String name() {
+            return "partial";
+        }
+    }
+
+    record Done(String text, int segments, double seconds) implements TranscriptEvent {
+        @Override
+        public String name() {
+            return "done";
+        }
+    }
+
+    record Failure(String message) implements TranscriptEvent {
+        @Override
+        public String name() {
+            return "error";
+        }
+    }
+}
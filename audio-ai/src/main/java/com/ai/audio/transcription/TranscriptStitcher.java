@@ -0,0 +1,56 @@
+package com.ai.audio.transcription;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Joins the transcripts of overlapping segments. The overlap is heard by both segments, so the
+ * start of a transcript usually repeats the end of the previous one; the longest run of words
+ * (compared without case and punctuation) that ends the previous text and starts the next one is
+ * dropped from the next.
+ */
+public final class TranscriptStitcher {
+
+    private TranscriptStitcher() {
+    }
+
+    /**
+     * @param previous text so far
+     * @param next     transcript of the following segment
+     * @param maxWords longest repeat to look for
+     * @return {@code next} without the words it repeats
+     */
+    public static String dedupe(String previous, String next, int maxWords) {
+        String[] tail = words(previous);
+        String[] head = words(next);
+        String[] rawHead = next.strip().split("\\s+");
+        int longest = Math.min(maxWords, Math.min(tail.length, head.length));
+        for (int n = longest; n >= 2; n--) {
+            if (matches(tail, tail.length - n, head, n)) {
+                return String.join(" ", Arrays.copyOfRange(rawHead, n, rawHead.length));
+            }
+        }
+        return next.strip();
+    }
+
+    private static boolean matches(String[] tail, int from, String[] head, int n) {
+        for (int i = 0; i < n; i++) {
+            if (!tail[from + i].equals(head[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] words(String text) {
+        String stripped = text.strip();
+        if (stripped.isEmpty()) {
+            return new String[0];
+        }
+        String[] words = stripped.split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            words[i] = words[i].replaceAll("[^\\p{L}\\p{N}']", "").toLowerCase(Locale.ROOT);
+        }
+        return words;
+    }
+}
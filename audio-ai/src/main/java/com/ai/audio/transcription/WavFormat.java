@@ -0,0 +1,107 @@
+package com.ai.audio.transcription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Layout of 16-bit little-endian PCM audio in a file: a WAV file's {@code data} chunk, or a whole
+ * headerless PCM file. Only the chunk headers are read, never the samples.
+ */
+public record WavFormat(int sampleRate, int channels, long dataOffset, long dataLength) {
+
+    private static final int PCM = 1;
+    private static final int EXTENSIBLE = 0xFFFE;
+
+    public int frameSize() {
+        return channels * 2;
+    }
+
+    public long frames() {
+        return dataLength / frameSize();
+    }
+
+    /**
+     * @return the format of a 16-bit PCM WAV file, or null if the file is not one
+     */
+    public static WavFormat read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) < 12 || header.getInt(0) != tag("RIFF") || header.getInt(8) != tag("WAVE")) {
+                return null;
+            }
+            int sampleRate = 0;
+            int channels = 0;
+            boolean pcm16 = false;
+            ByteBuffer chunk = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+            for (long position = 12; position + 8 <= channel.size(); ) {
+                chunk.clear().limit(8);
+                channel.read(chunk, position);
+                int id = chunk.getInt(0);
+                long size = Integer.toUnsignedLong(chunk.getInt(4));
+                if (id == tag("fmt ")) {
+                    chunk.clear().limit(16);
+                    channel.read(chunk, position + 8);
+                    int formatTag = Short.toUnsignedInt(chunk.getShort(0));
+                    channels = Short.toUnsignedInt(chunk.getShort(2));
+                    sampleRate = chunk.getInt(4);
+                    pcm16 = (formatTag == PCM || formatTag == EXTENSIBLE) && chunk.getShort(14) == 16;
+                } else if (id == tag("data")) {
+                    if (!pcm16 || channels == 0 || sampleRate == 0) {
+                        return null;
+                    }
+                    long length = Math.min(size, channel.size() - position - 8);
+                    return new WavFormat(sampleRate, channels, position + 8, length);
+                }
+                position += 8 + size + (size & 1);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Format of a headerless 16-bit little-endian PCM file.
+     */
+    public static WavFormat pcm(Path file, int sampleRate, int channels) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new WavFormat(sampleRate, channels, 0, channel.size());
+        }
+    }
+
+    /**
+     * Writes the frames {@code [fromFrame, toFrame)} of {@code source} to {@code target} as a
+     * WAV file, copying channel to channel.
+     */
+    public void copy(Path source, long fromFrame, long toFrame, Path target) throws IOException {
+        long length = (toFrame - fromFrame) * frameSize();
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.CREATE)) {
+            writeHeader(out, length);
+            long position = dataOffset + fromFrame * frameSize();
+            for (long copied = 0; copied < length; ) {
+                copied += in.transferTo(position + copied, length - copied, out);
+            }
+        }
+    }
+
+    private void writeHeader(WritableByteChannel out, long dataLength) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(tag("RIFF")).putInt((int) (36 + dataLength)).putInt(tag("WAVE"))
+                .putInt(tag("fmt ")).putInt(16).putShort((short) PCM).putShort((short) channels)
+                .putInt(sampleRate).putInt(sampleRate * frameSize()).putShort((short) frameSize()).putShort((short) 16)
+                .putInt(tag("data")).putInt((int) dataLength)
+                .flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+
+    private static int tag(String id) {
+        return id.charAt(0) | id.charAt(1) << 8 | id.charAt(2) << 16 | id.charAt(3) << 24;
+    }
+}
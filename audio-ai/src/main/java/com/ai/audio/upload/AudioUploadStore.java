@@ -0,0 +1,116 @@
+package com.ai.audio.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Spools uploaded audio to temporary files so recordings of any length are handled at constant
+ * heap: request bodies are copied through one fixed-size buffer, multipart files (already on
+ * disk, see {@code spring.servlet.multipart.file-size-threshold}) are moved.
+ * Uploads larger than {@code ai.audio.upload.max-size} are rejected and removed.
+ */
+@Component
+public class AudioUploadStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioUploadStore.class);
+
+    private final Path directory;
+    private final long maxSize;
+    private final int bufferSize;
+
+    public AudioUploadStore(@Value("${ai.audio.upload.dir:${java.io.tmpdir}/audio-uploads}") Path directory,
+                            @Value("${ai.audio.upload.max-size:500MB}") DataSize maxSize,
+                            @Value("${ai.audio.upload.buffer-size:64KB}") DataSize bufferSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize.toBytes();
+        this.bufferSize = (int) bufferSize.toBytes();
+    }
+
+    /**
+     * Copies a raw request body to a new file.
+     *
+     * @param format file extension of the audio, e.g. "wav"
+     */
+    public Path store(InputStream body, String format) throws IOException {
+        Path file = newFile(format);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[bufferSize];
+            long written = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                written += read;
+                if (written > maxSize) {
+                    throw new MaxUploadSizeExceededException(maxSize);
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Moves a multipart file to a new file.
+     */
+    public Path store(MultipartFile upload, String format) throws IOException {
+        if (upload.getSize() > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+        Path file = newFile(format);
+        try {
+            upload.transferTo(file);
+        } catch (IOException | RuntimeException e) {
+            delete(file);
+            throw e;
+        }
+        return file;
+    }
+
+    public void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete audio upload {}", file, e);
+        }
+    }
+
+    /**
+     * The extension of a file name or content type ("clip.mp3", "audio/mpeg"), or "bin".
+     */
+    public static String format(String nameOrContentType) {
+        if (nameOrContentType == null) {
+            return "bin";
+        }
+        String value = nameOrContentType.toLowerCase(Locale.ROOT);
+        int parameters = value.indexOf(';');
+        if (parameters >= 0) {
+            value = value.substring(0, parameters).trim();
+        }
+        String format = value.substring(Math.max(value.lastIndexOf('.'), value.lastIndexOf('/')) + 1);
+        return switch (format) {
+            case "mpeg", "mpga" -> "mp3";
+            case "x-wav", "wave", "vnd.wave" -> "wav";
+            case "mp4", "x-m4a" -> "m4a";
+            case "" -> "bin";
+            default -> format.matches("[a-z0-9]{1,8}") ? format : "bin";
+        };
+    }
+
+    private Path newFile(String format) throws IOException {
+        return Files.createTempFile(directory, "audio-", "." + format);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ai.audio.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.audio.transcription.TranscriptionModel;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class TranscriptionServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void audioAboveTheUpstreamLimitIsRejectedBeforeCallingTheModel() throws IOException {
+        TranscriptionModel model = mock(TranscriptionModel.class);
+        TranscriptionService service = new TranscriptionService(model, DataSize.ofMegabytes(25));
+        Path audio = directory.resolve("lecture.mp3");
+        try (RandomAccessFile file = new RandomAccessFile(audio.toFile(), "rw")) {
+            file.setLength(DataSize.ofMegabytes(26).toBytes());
+        }
+
+        assertThatThrownBy(() -> service.transcribe(audio, "en", null))
+                .isInstanceOf(AudioTooLargeException.class)
+                .hasMessageContaining("more than the 25 MB")
+                .hasMessageContaining("/api/audio/transcriptions/stream");
+        verifyNoInteractions(model);
+    }
+}
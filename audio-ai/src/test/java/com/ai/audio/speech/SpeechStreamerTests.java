@@ -0,0 +1,97 @@
+package com.ai.audio.speech;
+
+import com.ai.audio.dto.TextToAudioRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.openai.audio.speech.Speech;
+import org.springframework.ai.openai.audio.speech.SpeechModel;
+import org.springframework.ai.openai.audio.speech.SpeechPrompt;
+import org.springframework.ai.openai.audio.speech.SpeechResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpeechStreamerTests {
+
+    private static final String TEXT = "First sentence. Second sentence. Third sentence. Fourth sentence. "
+            + "Fifth sentence. Sixth sentence.";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowSpeechModel speechModel = new SlowSpeechModel(Duration.ofMillis(300));
+    private final SpeechStreamer streamer = new SpeechStreamer(speechModel, meterRegistry, "tts-1", 3, 20, 20);
+
+    @Test
+    void chunksAreSynthesizedAheadAndPlayedInOrder() {
+        List<byte[]> audio = streamer.synthesize(new TextToAudioRequest(TEXT, "alloy", "pcm16", null))
+                .collectList()
+                .block();
+
+        assertThat(audio).extracting(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .containsExactly("First sentence.", "Second sentence.", "Third sentence.", "Fourth sentence.",
+                        "Fifth sentence.", "Sixth sentence.");
+        assertThat(speechModel.calls.get()).isEqualTo(6);
+        // three chunks are synthesized at once rather than one after the other
+        assertThat(speechModel.maxInFlight.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("ai.audio.speech.first-audio").tag("format", "pcm16").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void formatsThatCannotBeConcatenatedAreRejected() {
+        assertThat(SpeechStreamer.format(null)).isEqualTo("mp3");
+        assertThat(SpeechStreamer.format("PCM")).isEqualTo("pcm16");
+        assertThatThrownBy(() -> streamer.synthesize(new TextToAudioRequest(TEXT, "alloy", "wav", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyTextIsRejected() {
+        assertThatThrownBy(() -> streamer.synthesize(new TextToAudioRequest(null, "alloy", "mp3", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> streamer.synthesize(new TextToAudioRequest(" \n ", "alloy", "mp3", null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Text cannot be empty");
+    }
+
+    @Test
+    void firstChunkIsShortAndTheRestArePacked() {
+        assertThat(SentenceChunker.split("Hi there. This is longer. And so is this one. End.", 12, 36))
+                .containsExactly("Hi there.", "This is longer. And so is this one.", "End.");
+        assertThat(SentenceChunker.split("One long opening sentence, with a clause in it, goes on.", 30, 100))
+                .containsExactly("One long opening sentence,", "with a clause in it, goes on.");
+    }
+
+    static class SlowSpeechModel implements SpeechModel {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Duration latency;
+
+        SlowSpeechModel(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public SpeechResponse call(SpeechPrompt prompt) {
+            return stream(prompt).blockLast();
+        }
+
+        @Override
+        public Flux<SpeechResponse> stream(SpeechPrompt prompt) {
+            return Flux.defer(() -> {
+                calls.incrementAndGet();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                byte[] audio = prompt.getInstructions().getText().getBytes(StandardCharsets.UTF_8);
+                return Flux.just(new SpeechResponse(new Speech(audio))).delaySubscription(latency)
+                        .doFinally(signal -> inFlight.decrementAndGet());
+            });
+        }
+    }
+}
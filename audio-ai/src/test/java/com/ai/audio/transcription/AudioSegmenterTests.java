@@ -0,0 +1,103 @@
+package com.ai.audio.transcription;
+
+import com.ai.audio.transcription.AudioSegmenter.Segment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AudioSegmenterTests {
+
+    private static final int RATE = 8000;
+
+    private final AudioSegmenter segmenter = new AudioSegmenter(Duration.ofSeconds(60), Duration.ofSeconds(90),
+            Duration.ofSeconds(2), Duration.ofMillis(300), 500);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void cutsInThePausesAfterTheTargetLength() throws IOException {
+        // speech 70 s, pause 1 s, speech 70 s, pause 1 s, speech 20 s
+        Path file = directory.resolve("talk.wav");
+        writeWav(file, 70, -1, 70, -1, 20);
+        WavFormat format = WavFormat.read(file);
+
+        List<Segment> segments = segmenter.segment(file, format);
+
+        assertThat(segments).hasSize(3);
+        assertThat(segments.get(0).startSeconds(format)).isZero();
+        assertThat(segments.get(0).endSeconds(format)).isCloseTo(70.5, within(0.05));
+        assertThat(segments.get(1).startSeconds(format)).isCloseTo(68.5, within(0.05));
+        assertThat(segments.get(1).endSeconds(format)).isCloseTo(141.5, within(0.05));
+        assertThat(segments.get(2).startSeconds(format)).isCloseTo(139.5, within(0.05));
+        assertThat(segments.get(2).endSeconds(format)).isEqualTo(162.0);
+    }
+
+    @Test
+    void cutsUninterruptedSpeechAtTheMaximumLength() throws IOException {
+        Path file = directory.resolve("lecture.wav");
+        writeWav(file, 200);
+        WavFormat format = WavFormat.read(file);
+
+        List<Segment> segments = segmenter.segment(file, format);
+
+        assertThat(segments).extracting(segment -> segment.endSeconds(format))
+                .containsExactly(90.0, 180.0, 200.0);
+        assertThat(segments.get(1).startSeconds(format)).isEqualTo(88.0);
+    }
+
+    @Test
+    void segmentIsCopiedAsAPlayableWav() throws IOException {
+        Path file = directory.resolve("talk.wav");
+        writeWav(file, 10);
+        WavFormat format = WavFormat.read(file);
+        Path segment = directory.resolve("segment.wav");
+
+        format.copy(file, 2 * RATE, 5 * RATE, segment);
+
+        WavFormat copied = WavFormat.read(segment);
+        assertThat(copied.sampleRate()).isEqualTo(RATE);
+        assertThat(copied.channels()).isOne();
+        assertThat(copied.frames()).isEqualTo(3L * RATE);
+        assertThat(Files.size(segment)).isEqualTo(44 + 3L * RATE * 2);
+    }
+
+    @Test
+    void otherFilesAreNotSegmentable() throws IOException {
+        Path file = directory.resolve("song.mp3");
+        Files.write(file, new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        assertThat(WavFormat.read(file)).isNull();
+    }
+
+    /**
+     * Writes a mono 16-bit WAV of alternating tone and silence; negative lengths are silence.
+     */
+    private static void writeWav(Path file, int... seconds) throws IOException {
+        int frames = 0;
+        for (int length : seconds) {
+            frames += Math.abs(length) * RATE;
+        }
+        ByteBuffer wav = ByteBuffer.allocate(44 + frames * 2).order(ByteOrder.LITTLE_ENDIAN)
+                .put("RIFF".getBytes()).putInt(36 + frames * 2).put("WAVE".getBytes())
+                .put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(RATE).putInt(RATE * 2).putShort((short) 2).putShort((short) 16)
+                .put("data".getBytes()).putInt(frames * 2);
+        for (int length : seconds) {
+            for (int i = 0; i < Math.abs(length) * RATE; i++) {
+                wav.putShort(length < 0 ? 0 : (short) (8000 * Math.sin(2 * Math.PI * 220 * i / RATE)));
+            }
+        }
+        Files.write(file, wav.array());
+    }
+}
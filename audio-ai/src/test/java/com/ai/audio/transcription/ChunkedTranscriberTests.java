@@ -0,0 +1,117 @@
+package com.ai.audio.transcription;
+
+import com.ai.audio.service.TranscriptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkedTranscriberTests {
+
+    private static final int RATE = 8000;
+    private static final int SEGMENTS = 6;
+    private static final int PARALLELISM = 2;
+
+    private final LatencyTranscriptionService transcriptionService = new LatencyTranscriptionService();
+    private final ChunkedTranscriber transcriber = new ChunkedTranscriber(transcriptionService, new SimpleMeterRegistry(),
+            PARALLELISM, 16, 1, Duration.ofSeconds(10), Duration.ofSeconds(10), Duration.ZERO, Duration.ofMillis(300),
+            500, RATE);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        transcriber.destroy();
+    }
+
+    @Test
+    void segmentsAreTranscribedInParallelAndStreamedInOrder() throws IOException {
+        Path file = directory.resolve("lecture.wav");
+        writeWav(file, SEGMENTS * 10);
+        transcriptionService.failOnce = 30;
+
+        List<TranscriptEvent> events = transcriber.transcribe(file, "wav", "en", null)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(events).hasSize(SEGMENTS + 1);
+        assertThat(events.subList(0, SEGMENTS)).extracting(event -> ((TranscriptEvent.Partial) event).segment())
+                .containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(events.subList(0, SEGMENTS)).extracting(event -> ((TranscriptEvent.Partial) event).text())
+                .containsExactly("segment 0", "segment 10", "segment 20", "segment 30", "segment 40", "segment 50");
+        assertThat(events.getLast()).isEqualTo(new TranscriptEvent.Done(
+                "segment 0 segment 10 segment 20 segment 30 segment 40 segment 50", SEGMENTS, SEGMENTS * 10.0));
+        assertThat(transcriptionService.maxInFlight.get()).isEqualTo(PARALLELISM);
+        // the failed segment is transcribed a second time
+        assertThat(transcriptionService.calls.get()).isEqualTo(SEGMENTS + 1);
+    }
+
+    /**
+     * Writes a mono 16-bit WAV whose samples hold the second they belong to, rounded down to ten.
+     */
+    private static void writeWav(Path file, int seconds) throws IOException {
+        int frames = seconds * RATE;
+        ByteBuffer wav = ByteBuffer.allocate(44 + frames * 2).order(ByteOrder.LITTLE_ENDIAN)
+                .put("RIFF".getBytes()).putInt(36 + frames * 2).put("WAVE".getBytes())
+                .put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(RATE).putInt(RATE * 2).putShort((short) 2).putShort((short) 16)
+                .put("data".getBytes()).putInt(frames * 2);
+        for (int i = 0; i < frames; i++) {
+            wav.putShort((short) (1000 + 10 * (i / RATE / 10 * 10)));
+        }
+        Files.write(file, wav.array());
+    }
+
+    /**
+     * Answers with the start second of the segment after a latency that is longest for the first
+     * segments, so later segments tend to finish first.
+     */
+    private static final class LatencyTranscriptionService extends TranscriptionService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private volatile int failOnce = -1;
+
+        LatencyTranscriptionService() {
+            super(null, DataSize.ofMegabytes(25));
+        }
+
+        @Override
+        public String transcribe(Path audio, String language, String prompt) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                int start = (ByteBuffer.wrap(Files.readAllBytes(audio)).order(ByteOrder.LITTLE_ENDIAN).getShort(44) - 1000) / 10;
+                Thread.sleep(20L * (SEGMENTS - start / 10));
+                if (start == failOnce && failed.compareAndSet(false, true)) {
+                    throw new IllegalStateException("upstream timeout");
+                }
+                return "segment " + start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
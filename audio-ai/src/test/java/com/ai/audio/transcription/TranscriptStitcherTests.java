@@ -0,0 +1,21 @@
+package com.ai.audio.transcription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranscriptStitcherTests {
+
+    @Test
+    void repeatedWordsOfTheOverlapAreDropped() {
+        assertThat(TranscriptStitcher.dedupe("and then the quick brown fox", "Quick brown fox, jumps over the dog.", 30))
+                .isEqualTo("jumps over the dog.");
+    }
+
+    @Test
+    void textWithoutOverlapIsKept() {
+        assertThat(TranscriptStitcher.dedupe("we met in the park", "The next day it rained.", 30))
+                .isEqualTo("The next day it rained.");
+        assertThat(TranscriptStitcher.dedupe("", " Hello there ", 30)).isEqualTo("Hello there");
+    }
+}
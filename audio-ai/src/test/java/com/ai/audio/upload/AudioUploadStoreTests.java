@@ -0,0 +1,78 @@
+package com.ai.audio.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AudioUploadStoreTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void largeBodyIsCopiedToDiskThroughAFixedBuffer() throws IOException {
+        AudioUploadStore store = new AudioUploadStore(directory, DataSize.ofMegabytes(300), DataSize.ofKilobytes(64));
+
+        Path file = store.store(new Zeros(256L * 1024 * 1024), "wav");
+
+        assertThat(file).hasParent(directory);
+        assertThat(file.toString()).endsWith(".wav");
+        assertThat(Files.size(file)).isEqualTo(256L * 1024 * 1024);
+        store.delete(file);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void oversizedBodyIsRejectedAndRemoved() throws IOException {
+        AudioUploadStore store = new AudioUploadStore(directory, DataSize.ofMegabytes(1), DataSize.ofKilobytes(64));
+
+        assertThatThrownBy(() -> store.store(new Zeros(2L * 1024 * 1024), "mp3"))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void formatComesFromFileNameOrContentType() {
+        assertThat(AudioUploadStore.format("meeting.MP3")).isEqualTo("mp3");
+        assertThat(AudioUploadStore.format("audio/mpeg")).isEqualTo("mp3");
+        assertThat(AudioUploadStore.format("audio/wav; codecs=1")).isEqualTo("wav");
+        assertThat(AudioUploadStore.format("clip.$(reboot)")).isEqualTo("bin");
+        assertThat(AudioUploadStore.format(null)).isEqualTo("bin");
+    }
+
+    /**
+     * A body of the given length that is never held in memory.
+     */
+    private static final class Zeros extends InputStream {
+
+        private long remaining;
+
+        Zeros(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            return remaining-- > 0 ? 0 : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = (int) Math.min(length, remaining);
+            remaining -= read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ai.chatmemory.advisor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link MessageChatMemoryAdvisor} whose streaming side also saves the answer when the client
+ * goes away.
+ * <p>
+ * Blocking calls are delegated unchanged. For streams, history is loaded and the user message
+ * stored exactly as the wrapped advisor does; the answer is accumulated in a single buffer while
+ * chunks pass through untouched, and is stored once, when the stream completes, fails or is
+ * cancelled. The stock advisor only stores it on completion, so an answer interrupted by the user
+ * or by an upstream error was lost.
+ * @author avinash
+ */
+public class PersistingChatMemoryAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final MessageChatMemoryAdvisor delegate;
+
+    public PersistingChatMemoryAdvisor(ChatMemory chatMemory) {
+        this.delegate = MessageChatMemoryAdvisor.builder(chatMemory).build();
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        return delegate.adviseCall(request, chain);
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Mono.fromCallable(() -> delegate.before(request, chain))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(advised -> {
+                    StringBuilder answer = new StringBuilder();
+                    AtomicBoolean saved = new AtomicBoolean();
+                    Runnable save = () -> {
+                        String text;
+                        synchronized (answer) {
+                            text = answer.toString();
+                        }
+                        if (saved.compareAndSet(false, true) && !text.isEmpty()) {
+                            ChatResponse response = new ChatResponse(
+                                    List.of(new Generation(new AssistantMessage(text))));
+                            delegate.after(new ChatClientResponse(response, advised.context()), chain);
+                        }
+                    };
+                    return chain.nextStream(advised)
+                            .doOnNext(response -> append(answer, response))
+                            .doOnComplete(save)
+                            .doOnError(error -> save.run())
+                            .doOnCancel(save);
+                });
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate.getOrder();
+    }
+
+    private static void append(StringBuilder answer, ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse != null && chatResponse.getResult() != null
+                && chatResponse.getResult().getOutput().getText() != null) {
+            synchronized (answer) {
+                answer.append(chatResponse.getResult().getOutput().getText());
+            }
+        }
+    }
+}
@@ -1,22 +1,88 @@
 package com.ai.chatmemory.config;
 
+import com.ai.chatmemory.memory.CompactingChatMemory;
+import com.ai.chatmemory.repository.ChatMemoryRetentionJob;
+import com.ai.chatmemory.repository.CompressedJdbcChatMemoryRepository;
+import com.ai.chatmemory.repository.WriteBehindChatMemoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
-import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
-import org.springframework.ai.chat.memory.repository.jdbc.PostgresChatMemoryRepositoryDialect;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author avinash
  */
 @Configuration
+@EnableScheduling
 public class ChatMemoryConfiguration {
+
+    @Value("${ai.chat.memory.window:100}")
+    private int window;
+
+    @Value("${ai.chat.memory.write-behind.max-conversations:10000}")
+    private int maxConversations;
+
+    @Value("${ai.chat.memory.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ai.chat.memory.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${ai.chat.memory.write-behind.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${ai.chat.memory.compaction.token-budget:2000}")
+    private int tokenBudget;
+
+    @Value("${ai.chat.memory.compaction.recent-tokens:1000}")
+    private int recentTokens;
+
+    @Value("${ai.chat.memory.compaction.summary-words:200}")
+    private int summaryWords;
+
+    @Value("${ai.chat.memory.retention.ttl:30d}")
+    private Duration retention;
+
+    @Value("${ai.chat.memory.retention.archive:true}")
+    private boolean archive;
+
+    @Value("${ai.chat.memory.retention.partitioned:true}")
+    private boolean partitioned;
+
+    @Value("${ai.chat.memory.retention.days-ahead:3}")
+    private int daysAhead;
+
+    @Value("${ai.chat.memory.retention.batch-size:10000}")
+    private int retentionBatchSize;
+
+    @Value("${ai.chat.memory.compression-threshold:256}")
+    private int compressionThreshold;
+
     @Bean
     public ChatMemoryRepository getChatMemoryRepository(JdbcTemplate jdbcTemplate) {
-        return JdbcChatMemoryRepository.builder()
-                .jdbcTemplate(jdbcTemplate)
-                .dialect(new PostgresChatMemoryRepositoryDialect())
-                .build();
+        CompressedJdbcChatMemoryRepository jdbcRepository =
+                new CompressedJdbcChatMemoryRepository(jdbcTemplate, window, retention, compressionThreshold);
+        return new WriteBehindChatMemoryRepository(jdbcRepository, window,
+                maxConversations, batchSize, maxPending, flushInterval);
+    }
+
+    @Bean
+    public ChatMemoryRetentionJob chatMemoryRetentionJob(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        return new ChatMemoryRetentionJob(jdbcTemplate, retention, archive, partitioned, daysAhead,
+                retentionBatchSize, meterRegistry);
+    }
+
+    @Bean
+    public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository, ChatModel chatModel,
+                                 MeterRegistry meterRegistry) {
+        return new CompactingChatMemory(chatMemoryRepository, chatModel, new JTokkitTokenCountEstimator(),
+                tokenBudget, recentTokens, summaryWords, window, meterRegistry);
     }
 }
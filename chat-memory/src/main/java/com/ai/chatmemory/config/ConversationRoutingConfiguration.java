@@ -0,0 +1,40 @@
+package com.ai.chatmemory.config;
+
+import com.ai.chatmemory.routing.ConversationAffinityInterceptor;
+import com.ai.chatmemory.routing.ConversationRouter;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @author avinash
+ */
+@Configuration
+public class ConversationRoutingConfiguration implements WebMvcConfigurer {
+
+    @Value("${ai.chat.cluster.self:local}")
+    private String self;
+
+    @Value("${ai.chat.cluster.nodes:}")
+    private List<String> nodes;
+
+    @Value("${ai.chat.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${ai.chat.cluster.redirect:false}")
+    private boolean redirect;
+
+    @Bean
+    public ConversationRouter conversationRouter() {
+        return new ConversationRouter(self, nodes, virtualNodes);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConversationAffinityInterceptor(conversationRouter(), redirect))
+                .addPathPatterns("/chat", "/chat/stream", "/conversations/**");
+    }
+}
@@ -2,11 +2,18 @@ package com.ai.chatmemory.controller;
 
 import com.ai.chatmemory.model.ChatRequest;
 import com.ai.chatmemory.service.ChatMemoryService;
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
 /**
  * @author avinash
@@ -14,15 +21,70 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class ChatMemoryController {
 
+    public static final String CONVERSATION_ID_HEADER = "X-Conversation-Id";
+
+    // chat_memory_message.conversation_id is a VARCHAR(36)
+    private static final int MAX_CONVERSATION_ID_LENGTH = 36;
+
     private final ChatMemoryService chatMemoryService;
 
     public ChatMemoryController(ChatMemoryService chatMemoryService) {
         this.chatMemoryService = chatMemoryService;
     }
 
+    /**
+     * Continues the conversation named by the {@value #CONVERSATION_ID_HEADER} header, or starts a
+     * new one when the header is absent. The id is always echoed back in the same header.
+     */
     @PostMapping("/chat")
-    public ResponseEntity<String> chat(@RequestBody @Valid ChatRequest request) {
-        String response = chatMemoryService.chat(request.getPrompt());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<String> chat(@RequestHeader(value = CONVERSATION_ID_HEADER, required = false) String conversationId,
+                                       @RequestBody @Valid ChatRequest request) {
+        String id = conversationId == null || conversationId.isBlank() ? UUID.randomUUID().toString() : conversationId;
+        return chat(id, request);
+    }
+
+    @PostMapping("/conversations/{conversationId}/chat")
+    public ResponseEntity<String> chatInConversation(@PathVariable String conversationId,
+                                                     @RequestBody @Valid ChatRequest request) {
+        return chat(conversationId, request);
+    }
+
+    /**
+     * Streams the answer as server-sent events, one event per token. Like {@code /chat}, the
+     * conversation id is taken from (and echoed in) the {@value #CONVERSATION_ID_HEADER} header.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<String>> streamChat(@RequestHeader(value = CONVERSATION_ID_HEADER, required = false) String conversationId,
+                                                   @RequestBody @Valid ChatRequest request) {
+        String id = conversationId == null || conversationId.isBlank() ? UUID.randomUUID().toString() : conversationId;
+        return streamChat(id, request);
+    }
+
+    @PostMapping(value = "/conversations/{conversationId}/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<String>> streamChatInConversation(@PathVariable String conversationId,
+                                                                 @RequestBody @Valid ChatRequest request) {
+        return streamChat(conversationId, request);
+    }
+
+    private ResponseEntity<Flux<String>> streamChat(String conversationId, ChatRequest request) {
+        validate(conversationId);
+        return ResponseEntity.ok()
+                .header(CONVERSATION_ID_HEADER, conversationId)
+                .body(chatMemoryService.stream(conversationId, request.getPrompt()));
+    }
+
+    private ResponseEntity<String> chat(String conversationId, ChatRequest request) {
+        validate(conversationId);
+        String response = chatMemoryService.chat(conversationId, request.getPrompt());
+        return ResponseEntity.ok()
+                .header(CONVERSATION_ID_HEADER, conversationId)
+                .body(response);
+    }
+
+    private static void validate(String conversationId) {
+        if (conversationId.length() > MAX_CONVERSATION_ID_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Conversation id must be at most " + MAX_CONVERSATION_ID_LENGTH + " characters");
+        }
     }
 }
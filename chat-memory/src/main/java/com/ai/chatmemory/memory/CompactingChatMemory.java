@@ -0,0 +1,283 @@
+package com.ai.chatmemory.memory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+/**
+ * {@link ChatMemory} that keeps the history sent with every prompt within a token budget.
+ * <p>
+ * Once the stored turns exceed {@code tokenBudget}, everything but the most recent
+ * {@code recentTokens} worth of turns is summarized in the background by the chat model. The
+ * summary replaces those turns as a single system message at the head of the conversation and
+ * is persisted through the {@link ChatMemoryRepository}, so later turns (and other instances)
+ * only ever load the summary plus the recent turns. Until a compaction finishes, {@link #get}
+ * still returns no more than the budget: the oldest turns are left out of the prompt.
+ * @author avinash
+ */
+@Slf4j
+public class CompactingChatMemory implements ChatMemory, AutoCloseable {
+
+    private static final Pattern SUMMARY_HEADER =
+            Pattern.compile("^Summary of the earlier conversation \\((\\d+) tokens\\):\\n");
+
+    private static final String SUMMARIZE_INSTRUCTIONS = """
+            Summarize the conversation below so that the summary can replace it as context for the \
+            next turns. Keep names, facts, numbers, decisions and open questions; leave out small talk. \
+            Answer with the summary only, in at most %d words.""";
+
+    private final ChatMemoryRepository repository;
+    private final ChatModel chatModel;
+    private final TokenCountEstimator tokenCountEstimator;
+    private final int tokenBudget;
+    private final int recentTokens;
+    private final int summaryWords;
+    private final int maxMessages;
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+    private final Map<String, Boolean> compacting = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary tokensSaved;
+    private final Counter compactions;
+    private final Counter failedCompactions;
+
+    public CompactingChatMemory(ChatMemoryRepository repository, ChatModel chatModel,
+                                TokenCountEstimator tokenCountEstimator, int tokenBudget, int recentTokens,
+                                int summaryWords, int maxMessages, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.chatModel = chatModel;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.tokenBudget = tokenBudget;
+        this.recentTokens = Math.min(recentTokens, tokenBudget);
+        this.summaryWords = summaryWords;
+        this.maxMessages = maxMessages;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.promptTokens = DistributionSummary.builder("ai.chat.memory.prompt.tokens")
+                .description("Estimated tokens of conversation history sent per turn")
+                .register(meterRegistry);
+        this.tokensSaved = DistributionSummary.builder("ai.chat.memory.tokens.saved")
+                .description("Estimated history tokens not sent per turn thanks to compaction")
+                .register(meterRegistry);
+        this.compactions = Counter.builder("ai.chat.memory.compactions")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedCompactions = Counter.builder("ai.chat.memory.compactions")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        List<Message> stored;
+        ReentrantLock lock = lock(conversationId);
+        lock.lock();
+        try {
+            stored = new ArrayList<>(repository.findByConversationId(conversationId));
+            stored.addAll(messages);
+            // hard cap in case compaction cannot keep up (or keeps failing)
+            while (stored.size() > maxMessages) {
+                stored.remove(isSummary(stored.getFirst()) ? 1 : 0);
+            }
+            repository.saveAll(conversationId, stored);
+        } finally {
+            lock.unlock();
+        }
+        if (stored.isEmpty()) {
+            return;
+        }
+        int summaryOffset = isSummary(stored.getFirst()) ? 1 : 0;
+        if (tokens(stored.subList(summaryOffset, stored.size())) > tokenBudget
+                && compacting.putIfAbsent(conversationId, Boolean.TRUE) == null) {
+            executor.execute(() -> compact(conversationId));
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        List<Message> stored = repository.findByConversationId(conversationId);
+        if (stored.isEmpty()) {
+            return stored;
+        }
+        Message summary = isSummary(stored.getFirst()) ? stored.getFirst() : null;
+        List<Message> turns = stored.subList(summary == null ? 0 : 1, stored.size());
+        int summaryTokens = summary == null ? 0 : tokens(summary);
+        int from = recentStart(turns, Math.max(0, tokenBudget - summaryTokens));
+
+        List<Message> memory = new ArrayList<>(turns.size() - from + 1);
+        if (summary != null) {
+            memory.add(summary);
+        }
+        memory.addAll(turns.subList(from, turns.size()));
+
+        int sent = summaryTokens + tokens(turns.subList(from, turns.size()));
+        int full = summarizedTokens(summary) + tokens(turns);
+        promptTokens.record(sent);
+        tokensSaved.record(Math.max(0, full - sent));
+        return memory;
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        ReentrantLock lock = lock(conversationId);
+        lock.lock();
+        try {
+            repository.deleteByConversationId(conversationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private void compact(String conversationId) {
+        try {
+            List<Message> snapshot = repository.findByConversationId(conversationId);
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            Message previous = isSummary(snapshot.getFirst()) ? snapshot.getFirst() : null;
+            int offset = previous == null ? 0 : 1;
+            List<Message> turns = snapshot.subList(offset, snapshot.size());
+            int cut = recentStart(turns, recentTokens);
+            if (cut == 0) {
+                return;
+            }
+            List<Message> older = turns.subList(0, cut);
+            int covered = summarizedTokens(previous) + tokens(older);
+            Message summary = new SystemMessage("Summary of the earlier conversation (" + covered + " tokens):\n"
+                    + summarize(previous, older));
+
+            ReentrantLock lock = lock(conversationId);
+            lock.lock();
+            try {
+                List<Message> current = repository.findByConversationId(conversationId);
+                int replaced = offset + cut;
+                if (!startsWith(current, snapshot.subList(0, replaced))) {
+                    // cleared or rewritten while we were summarizing; the next turn will try again
+                    return;
+                }
+                List<Message> compacted = new ArrayList<>(current.size() - replaced + 1);
+                compacted.add(summary);
+                compacted.addAll(current.subList(replaced, current.size()));
+                repository.saveAll(conversationId, compacted);
+            } finally {
+                lock.unlock();
+            }
+            compactions.increment();
+        } catch (RuntimeException e) {
+            failedCompactions.increment();
+            log.warn("Compacting conversation {} failed", conversationId, e);
+        } finally {
+            compacting.remove(conversationId);
+        }
+    }
+
+    private String summarize(Message previous, List<Message> older) {
+        StringBuilder transcript = new StringBuilder();
+        if (previous != null) {
+            transcript.append(previous.getText()).append("\n\n");
+        }
+        for (Message message : older) {
+            transcript.append(message.getMessageType().getValue()).append(": ").append(message.getText()).append('\n');
+        }
+        Prompt prompt = new Prompt(List.of(
+                new SystemMessage(SUMMARIZE_INSTRUCTIONS.formatted(summaryWords)),
+                new UserMessage(transcript.toString())));
+        return chatModel.call(prompt).getResult().getOutput().getText();
+    }
+
+    /**
+     * Index of the first turn to keep so that the kept turns fit in {@code budget} tokens,
+     * moved forward to a user message so that a kept exchange is never cut in half.
+     */
+    private int recentStart(List<Message> turns, int budget) {
+        int used = 0;
+        int from = turns.size();
+        while (from > 0) {
+            int next = tokens(turns.get(from - 1));
+            if (used + next > budget) {
+                break;
+            }
+            used += next;
+            from--;
+        }
+        if (from == 0) {
+            return 0;
+        }
+        for (int i = from; i < turns.size(); i++) {
+            if (turns.get(i).getMessageType() == MessageType.USER) {
+                return i;
+            }
+        }
+        return from;
+    }
+
+    private int tokens(List<Message> messages) {
+        int total = 0;
+        for (Message message : messages) {
+            total += tokens(message);
+        }
+        return total;
+    }
+
+    private int tokens(Message message) {
+        return message.getText() == null ? 0 : tokenCountEstimator.estimate(message.getText());
+    }
+
+    private ReentrantLock lock(String conversationId) {
+        return locks[Math.floorMod(conversationId.hashCode(), locks.length)];
+    }
+
+    private static boolean isSummary(Message message) {
+        return message.getMessageType() == MessageType.SYSTEM
+                && message.getText() != null
+                && SUMMARY_HEADER.matcher(message.getText()).find();
+    }
+
+    private static int summarizedTokens(Message summary) {
+        if (summary == null) {
+            return 0;
+        }
+        Matcher matcher = SUMMARY_HEADER.matcher(summary.getText());
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static boolean startsWith(List<Message> messages, List<Message> prefix) {
+        if (messages.size() < prefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            Message a = messages.get(i);
+            Message b = prefix.get(i);
+            if (a.getMessageType() != b.getMessageType() || !Objects.equals(a.getText(), b.getText())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
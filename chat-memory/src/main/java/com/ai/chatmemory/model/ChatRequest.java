@@ -1,6 +1,6 @@
 package com.ai.chatmemory.model;
 
-import javax.validation.constraints.NotNull;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 /**
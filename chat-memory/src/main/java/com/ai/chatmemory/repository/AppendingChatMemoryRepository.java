@@ -0,0 +1,20 @@
+package com.ai.chatmemory.repository;
+
+import java.util.List;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * {@link ChatMemoryRepository} that can also append messages without rewriting conversations.
+ * @author avinash
+ */
+public interface AppendingChatMemoryRepository extends ChatMemoryRepository {
+
+    /**
+     * Appends the messages, in order, to their conversations.
+     */
+    void append(List<ConversationMessage> messages);
+
+    record ConversationMessage(String conversationId, Message message) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.ai.chatmemory.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Enforces the retention period of {@code chat_memory_message}.
+ * <p>
+ * {@link CompressedJdbcChatMemoryRepository} rewrites the readable window of a conversation with
+ * fresh timestamps as new messages arrive, so anything older than the retention period belongs to an idle conversation
+ * or has scrolled out of its window, and can go by {@code created_at} alone.
+ * <p>
+ * On PostgreSQL the table is range-partitioned by day on {@code created_at}: the job keeps
+ * {@code daysAhead} partitions created in advance, and a partition that lies entirely before the
+ * retention period is detached in one statement, then renamed to
+ * {@code chat_memory_archive_yyyyMMdd} or dropped. Rows the partitions cannot handle (the default
+ * partition, or a database without partitioning) are moved or deleted in batches of
+ * {@code batchSize}, each in its own transaction, so the job never holds long locks.
+ * @author avinash
+ */
+@Slf4j
+public class ChatMemoryRetentionJob {
+
+    private static final String PARTITION_PREFIX = "chat_memory_message_p";
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = 'chat_memory_message'";
+    private static final String BATCH_END_SQL =
+            "SELECT created_at FROM chat_memory_message WHERE created_at < ? ORDER BY created_at LIMIT 1 OFFSET ?";
+    private static final String ARCHIVE_SQL = "INSERT INTO chat_memory_message_archive "
+            + "(conversation_id, type, content, created_at) "
+            + "SELECT conversation_id, type, content, created_at FROM chat_memory_message WHERE created_at ";
+    private static final String DELETE_SQL = "DELETE FROM chat_memory_message WHERE created_at ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final boolean archive;
+    private final boolean partitioned;
+    private final int daysAhead;
+    private final int batchSize;
+    private final Counter archivedRows;
+    private final Counter purgedRows;
+    private final Counter expiredPartitions;
+
+    public ChatMemoryRetentionJob(JdbcTemplate jdbcTemplate, Duration retention, boolean archive, boolean partitioned,
+                                  int daysAhead, int batchSize, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.retention = retention;
+        this.archive = archive;
+        this.partitioned = partitioned;
+        this.daysAhead = daysAhead;
+        this.batchSize = batchSize;
+        this.archivedRows = Counter.builder("ai.chat.memory.retention.rows").tag("action", "archived")
+                .register(meterRegistry);
+        this.purgedRows = Counter.builder("ai.chat.memory.retention.rows").tag("action", "purged")
+                .register(meterRegistry);
+        this.expiredPartitions = Counter.builder("ai.chat.memory.retention.partitions").tag("action", "expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ai.chat.memory.retention.interval:PT1H}")
+    public void run() {
+        try {
+            LocalDateTime cutoff = CompressedJdbcChatMemoryRepository.utc(System.currentTimeMillis() - retention.toMillis());
+            if (partitioned) {
+                createPartitions(LocalDate.now(ZoneOffset.UTC));
+                expirePartitions(cutoff.toLocalDate());
+            }
+            expireRows(cutoff);
+        } catch (RuntimeException e) {
+            log.warn("Chat memory retention run failed", e);
+        }
+    }
+
+    private void createPartitions(LocalDate today) {
+        for (int day = 0; day <= daysAhead; day++) {
+            LocalDate from = today.plusDays(day);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + PARTITION_DATE.format(from)
+                        + " PARTITION OF chat_memory_message FOR VALUES FROM ('" + from + "') TO ('" + from.plusDays(1) + "')");
+            } catch (RuntimeException e) {
+                // typically rows for that day already sit in the default partition; they expire in batches
+                log.warn("Could not create chat memory partition for {}", from, e);
+            }
+        }
+    }
+
+    /**
+     * Detaches every daily partition that ends on or before the first day still within retention.
+     */
+    private void expirePartitions(LocalDate cutoffDay) {
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DATE);
+            if (day.plusDays(1).isAfter(cutoffDay)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE chat_memory_message DETACH PARTITION " + partition);
+            if (archive) {
+                jdbcTemplate.execute("ALTER TABLE " + partition + " RENAME TO chat_memory_archive_"
+                        + PARTITION_DATE.format(day));
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            expiredPartitions.increment();
+            log.info("{} chat memory partition {}", archive ? "Archived" : "Dropped", partition);
+        }
+    }
+
+    private void expireRows(LocalDateTime cutoff) {
+        while (true) {
+            List<LocalDateTime> batchEnd = jdbcTemplate.queryForList(BATCH_END_SQL, LocalDateTime.class, cutoff,
+                    batchSize - 1);
+            boolean last = batchEnd.isEmpty();
+            // the final batch takes whatever is left before the cutoff
+            String condition = last ? "< ?" : "<= ?";
+            LocalDateTime bound = last ? cutoff : batchEnd.getFirst();
+            Integer moved = transactionTemplate.execute(status -> {
+                if (archive) {
+                    jdbcTemplate.update(ARCHIVE_SQL + condition, bound);
+                }
+                return jdbcTemplate.update(DELETE_SQL + condition, bound);
+            });
+            if (moved != null && moved > 0) {
+                (archive ? archivedRows : purgedRows).increment(moved);
+            }
+            if (last) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ai.chatmemory.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JDBC chat memory over the {@code chat_memory_message} table, which stores message bodies
+ * compressed (see {@link MessageCodec}) and is range-partitioned by {@code created_at} on
+ * PostgreSQL.
+ * <p>
+ * Reads only fetch the last {@code readLimit} messages created within {@code retention}. The
+ * time bound lets PostgreSQL skip every partition older than the retention period, and the
+ * {@code (conversation_id, created_at)} index serves the rest, so reading an active conversation
+ * costs the same however many rows the table holds.
+ * <p>
+ * Retention follows conversation activity rather than the age of each message: when a message is
+ * appended to a conversation whose readable window is older than {@code refreshAfter} (a day, or half
+ * the retention period if shorter), the window is rewritten with fresh timestamps ahead of the new
+ * message. Its older rows, such as a compaction summary, therefore move to the current partition
+ * along with the conversation, and only rows outside the window, or conversations idle for the
+ * retention period, age out. All timestamps are stored in UTC, the zone the daily partitions are
+ * cut in.
+ * @author avinash
+ */
+public class CompressedJdbcChatMemoryRepository implements AppendingChatMemoryRepository {
+
+    private static final String SELECT_IDS_SQL =
+            "SELECT DISTINCT conversation_id FROM chat_memory_message WHERE created_at >= ?";
+    private static final String SELECT_SQL = "SELECT type, content FROM chat_memory_message "
+            + "WHERE conversation_id = ? AND created_at >= ? ORDER BY created_at DESC LIMIT ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_memory_message (conversation_id, type, content, created_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_WINDOW_SQL = "SELECT type, content, created_at FROM chat_memory_message "
+            + "WHERE conversation_id = ? AND created_at >= ? ORDER BY created_at DESC LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM chat_memory_message WHERE conversation_id = ?";
+    private static final String DELETE_WINDOW_SQL =
+            "DELETE FROM chat_memory_message WHERE conversation_id = ? AND created_at >= ?";
+    private static final int MAX_TRACKED_CONVERSATIONS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageCodec codec;
+    private final int readLimit;
+    private final Duration retention;
+    private final long refreshAfterMillis;
+    private final AtomicLong lastTimestamp = new AtomicLong();
+    /**
+     * When each recently written conversation's window next needs a refresh, so appends skip the
+     * window query in between.
+     */
+    private final Map<String, Long> refreshDue = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_TRACKED_CONVERSATIONS;
+        }
+    };
+
+    public CompressedJdbcChatMemoryRepository(JdbcTemplate jdbcTemplate, int readLimit, Duration retention,
+                                              int compressionThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.codec = new MessageCodec(compressionThreshold);
+        this.readLimit = readLimit;
+        this.retention = retention;
+        this.refreshAfterMillis = Math.min(Duration.ofDays(1).toMillis(), retention.toMillis() / 2);
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        return jdbcTemplate.queryForList(SELECT_IDS_SQL, String.class, retentionStart());
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        List<Message> messages = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> message(MessageType.valueOf(rs.getString(1)), codec.decode(rs.getBytes(2))),
+                conversationId, retentionStart(), readLimit);
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        List<ConversationMessage> rows = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            rows.add(new ConversationMessage(conversationId, message));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_SQL, conversationId);
+            insert(rows);
+        });
+        markRefreshed(conversationId, System.currentTimeMillis());
+    }
+
+    @Override
+    public void append(List<ConversationMessage> messages) {
+        transactionTemplate.executeWithoutResult(status -> {
+            messages.stream().map(ConversationMessage::conversationId).distinct().forEach(this::refreshWindow);
+            insert(messages);
+        });
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        jdbcTemplate.update(DELETE_SQL, conversationId);
+        synchronized (refreshDue) {
+            refreshDue.remove(conversationId);
+        }
+    }
+
+    /**
+     * Re-inserts the readable window of a conversation with fresh timestamps once its oldest message
+     * is older than {@code refreshAfter}, keeping the order of the messages.
+     */
+    private void refreshWindow(String conversationId) {
+        long now = System.currentTimeMillis();
+        synchronized (refreshDue) {
+            Long due = refreshDue.get(conversationId);
+            if (due != null && due > now) {
+                return;
+            }
+        }
+        List<StoredMessage> window = jdbcTemplate.query(SELECT_WINDOW_SQL,
+                (rs, rowNum) -> new StoredMessage(rs.getString(1), rs.getBytes(2), rs.getObject(3, LocalDateTime.class)),
+                conversationId, retentionStart(), readLimit);
+        if (window.isEmpty()) {
+            markRefreshed(conversationId, now);
+            return;
+        }
+        LocalDateTime oldest = window.getLast().createdAt();
+        long oldestMillis = oldest.toInstant(ZoneOffset.UTC).toEpochMilli();
+        if (now - oldestMillis < refreshAfterMillis) {
+            markRefreshed(conversationId, oldestMillis);
+            return;
+        }
+        Collections.reverse(window);
+        jdbcTemplate.update(DELETE_WINDOW_SQL, conversationId, oldest);
+        jdbcTemplate.batchUpdate(INSERT_SQL, window, window.size(), (ps, row) -> {
+            ps.setString(1, conversationId);
+            ps.setString(2, row.type());
+            ps.setBytes(3, row.content());
+            ps.setObject(4, utc(nextTimestamp()));
+        });
+        markRefreshed(conversationId, now);
+    }
+
+    private void markRefreshed(String conversationId, long oldestMillis) {
+        synchronized (refreshDue) {
+            refreshDue.put(conversationId, oldestMillis + refreshAfterMillis);
+        }
+    }
+
+    private void insert(List<ConversationMessage> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.conversationId());
+            ps.setString(2, row.message().getMessageType().name());
+            ps.setBytes(3, codec.encode(row.message().getText() == null ? "" : row.message().getText()));
+            ps.setObject(4, utc(nextTimestamp()));
+        });
+    }
+
+    private LocalDateTime retentionStart() {
+        return utc(System.currentTimeMillis() - retention.toMillis());
+    }
+
+    /**
+     * {@code created_at} has no time zone; binding a {@link LocalDateTime} in UTC keeps rows in the
+     * partition of their UTC day whatever the JVM default zone is.
+     */
+    static LocalDateTime utc(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Strictly increasing timestamps keep the insertion order stable when reading by created_at.
+     */
+    private long nextTimestamp() {
+        return lastTimestamp.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    private static Message message(MessageType type, String text) {
+        return switch (type) {
+            case USER -> new UserMessage(text);
+            case ASSISTANT -> new AssistantMessage(text);
+            case SYSTEM -> new SystemMessage(text);
+            case TOOL -> new ToolResponseMessage(List.of());
+        };
+    }
+
+    private record StoredMessage(String type, byte[] content, LocalDateTime createdAt) {
+    }
+}
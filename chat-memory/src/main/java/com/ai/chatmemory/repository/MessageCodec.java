@@ -0,0 +1,86 @@
+package com.ai.chatmemory.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes message text for storage: one flag byte, then either the raw UTF-8 bytes or, for texts
+ * of at least {@code threshold} bytes that actually shrink, the original length and the
+ * deflated bytes.
+ * @author avinash
+ */
+final class MessageCodec {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private final int threshold;
+
+    MessageCodec(int threshold) {
+        this.threshold = threshold;
+    }
+
+    byte[] encode(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= threshold) {
+            byte[] deflated = deflate(utf8);
+            if (deflated.length + Integer.BYTES < utf8.length) {
+                return ByteBuffer.allocate(1 + Integer.BYTES + deflated.length)
+                        .put(DEFLATED)
+                        .putInt(utf8.length)
+                        .put(deflated)
+                        .array();
+            }
+        }
+        byte[] encoded = new byte[utf8.length + 1];
+        encoded[0] = RAW;
+        System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+        return encoded;
+    }
+
+    String decode(byte[] encoded) {
+        if (encoded[0] == RAW) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        buffer.get();
+        byte[] utf8 = new byte[buffer.getInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, buffer.position(), buffer.remaining());
+            int length = 0;
+            while (length < utf8.length && !inflater.finished()) {
+                int read = inflater.inflate(utf8, length, utf8.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed message");
+                }
+                length += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed message", e);
+        } finally {
+            inflater.end();
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] chunk = new byte[Math.min(8192, Math.max(64, input.length))];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ai.chatmemory.repository;
+
+import com.ai.chatmemory.repository.AppendingChatMemoryRepository.ConversationMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * Caching, write-behind decorator for an {@link AppendingChatMemoryRepository}.
+ * <p>
+ * Reads are served from an in-memory window per conversation; a conversation is only loaded
+ * from the database on its first access. {@code ChatMemory} implementations save the full
+ * window, so on every save the messages that are new compared to the cached window are
+ * detected and only those are queued to be appended. A background task flushes the queue in
+ * batches every {@code flushInterval}; callers are only made to flush synchronously when
+ * more than {@code maxPending} rows are waiting. {@link #close()} flushes everything that is
+ * left, so only rows queued within the last flush interval can be lost, and only on a crash.
+ * @author avinash
+ */
+@Slf4j
+public class WriteBehindChatMemoryRepository implements ChatMemoryRepository, AutoCloseable {
+
+    private final AppendingChatMemoryRepository delegate;
+    private final int window;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<String, Conversation> conversations;
+    private final ConcurrentLinkedDeque<PendingRow> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    public WriteBehindChatMemoryRepository(AppendingChatMemoryRepository delegate, int window, int maxConversations,
+                                           int batchSize, int maxPending, Duration flushInterval) {
+        this.delegate = delegate;
+        this.window = window;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.conversations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                // a conversation with unflushed rows stays cached until the rows reach the database
+                return size() > maxConversations && eldest.getValue().pendingRows.get() == 0;
+            }
+        };
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-memory-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        LinkedHashSet<String> ids = new LinkedHashSet<>(delegate.findConversationIds());
+        synchronized (conversations) {
+            conversations.forEach((id, conversation) -> {
+                if (!conversation.messages.isEmpty()) {
+                    ids.add(id);
+                }
+            });
+        }
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        return List.copyOf(conversation(conversationId).messages);
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        Conversation conversation = conversation(conversationId);
+        List<Message> added;
+        synchronized (conversation) {
+            int overlap = overlap(conversation.messages, messages);
+            if (overlap < 0) {
+                // not an append (e.g. a system message was replaced): rewrite the conversation in place
+                rewrite(conversationId, conversation, messages);
+                return;
+            }
+            added = messages.subList(overlap, messages.size());
+            conversation.messages = trim(messages);
+            conversation.pendingRows.addAndGet(added.size());
+            for (Message message : added) {
+                pending.addLast(new PendingRow(conversationId, conversation, message));
+            }
+        }
+        if (pendingCount.addAndGet(added.size()) > maxPending) {
+            flush();
+        }
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        flushLock.lock();
+        try {
+            pending.removeIf(row -> {
+                if (row.conversationId().equals(conversationId)) {
+                    pendingCount.decrementAndGet();
+                    return true;
+                }
+                return false;
+            });
+            synchronized (conversations) {
+                conversations.remove(conversationId);
+            }
+            delegate.deleteByConversationId(conversationId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all queued rows to the database in batches.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                List<PendingRow> batch = new ArrayList<>(batchSize);
+                PendingRow row;
+                while (batch.size() < batchSize && (row = pending.pollFirst()) != null) {
+                    batch.add(row);
+                }
+                try {
+                    insert(batch);
+                } catch (RuntimeException e) {
+                    // keep the rows, in order, for the next attempt
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        pending.addFirst(batch.get(i));
+                    }
+                    throw e;
+                }
+                pendingCount.addAndGet(-batch.size());
+                for (PendingRow written : batch) {
+                    written.conversation().pendingRows.decrementAndGet();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingRows() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} chat memory rows failed, will retry", pendingCount.get(), e);
+        }
+    }
+
+    private void insert(List<PendingRow> batch) {
+        List<ConversationMessage> messages = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            messages.add(new ConversationMessage(row.conversationId(), row.message()));
+        }
+        delegate.append(messages);
+    }
+
+    private void rewrite(String conversationId, Conversation conversation, List<Message> messages) {
+        flushLock.lock();
+        try {
+            pending.removeIf(row -> {
+                if (row.conversationId().equals(conversationId)) {
+                    pendingCount.decrementAndGet();
+                    return true;
+                }
+                return false;
+            });
+            conversation.pendingRows.set(0);
+            delegate.saveAll(conversationId, messages);
+            conversation.messages = trim(messages);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Conversation conversation(String conversationId) {
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation != null) {
+                return conversation;
+            }
+        }
+        // load outside the lock so a cold conversation does not block every other one
+        Conversation loaded = new Conversation(trim(delegate.findByConversationId(conversationId)));
+        synchronized (conversations) {
+            return conversations.computeIfAbsent(conversationId, id -> loaded);
+        }
+    }
+
+    private List<Message> trim(List<Message> messages) {
+        int from = Math.max(0, messages.size() - window);
+        return List.copyOf(messages.subList(from, messages.size()));
+    }
+
+    /**
+     * Number of leading {@code incoming} messages that are already stored, or -1 if {@code incoming}
+     * is not the cached window with new messages appended. Instances are compared by identity:
+     * {@code ChatMemory} implementations pass back the very messages they read, so repeated texts
+     * cannot be mistaken for one another.
+     */
+    private static int overlap(List<Message> cached, List<Message> incoming) {
+        if (cached.isEmpty()) {
+            return 0;
+        }
+        if (incoming.isEmpty()) {
+            return -1;
+        }
+        int start = 0;
+        while (start < cached.size() && cached.get(start) != incoming.get(0)) {
+            start++;
+        }
+        int retained = cached.size() - start;
+        if (retained == 0 || retained > incoming.size()) {
+            return -1;
+        }
+        for (int i = 0; i < retained; i++) {
+            if (cached.get(start + i) != incoming.get(i)) {
+                return -1;
+            }
+        }
+        return retained;
+    }
+
+    private static final class Conversation {
+
+        private final AtomicInteger pendingRows = new AtomicInteger();
+        private volatile List<Message> messages;
+
+        private Conversation(List<Message> messages) {
+            this.messages = messages;
+        }
+    }
+
+    private record PendingRow(String conversationId, Conversation conversation, Message message) {
+    }
+}
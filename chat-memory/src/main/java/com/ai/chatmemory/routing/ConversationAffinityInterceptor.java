@@ -0,0 +1,60 @@
+package com.ai.chatmemory.routing;
+
+import com.ai.chatmemory.controller.ChatMemoryController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tells clients and load balancers which instance owns a conversation.
+ * <p>
+ * Every response carrying a conversation id gets an {@value #OWNER_HEADER} header, so that a
+ * proxy can pin the conversation (e.g. nginx {@code hash $http_x_conversation_id consistent}).
+ * With {@code redirect} enabled, a request that reached the wrong instance is answered with a
+ * 307 to the owner instead of being served with a cold cache.
+ * @author avinash
+ */
+public class ConversationAffinityInterceptor implements HandlerInterceptor {
+
+    public static final String OWNER_HEADER = "X-Conversation-Owner";
+
+    private final ConversationRouter router;
+    private final boolean redirect;
+
+    public ConversationAffinityInterceptor(ConversationRouter router, boolean redirect) {
+        this.router = router;
+        this.redirect = redirect;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String conversationId = conversationId(request);
+        if (conversationId == null) {
+            return true;
+        }
+        String owner = router.owner(conversationId);
+        response.setHeader(OWNER_HEADER, owner);
+        if (!redirect || owner.equals(router.self())) {
+            return true;
+        }
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, owner + request.getRequestURI() + (query == null ? "" : "?" + query));
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String conversationId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables != null && variables.containsKey("conversationId")) {
+            return variables.get("conversationId");
+        }
+        String header = request.getHeader(ChatMemoryController.CONVERSATION_ID_HEADER);
+        return header == null || header.isBlank() ? null : header;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ai.chatmemory.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping conversation ids to the instance that owns them.
+ * <p>
+ * Routing every turn of a conversation to the same instance keeps that instance's in-memory
+ * conversation cache hot. Each node is placed on the ring {@code virtualNodes} times, so adding
+ * or removing a node only moves about {@code 1/n} of the conversations.
+ * @author avinash
+ */
+public class ConversationRouter {
+
+    private final String self;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConversationRouter(String self, List<String> nodes, int virtualNodes) {
+        this.self = self;
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * The node owning the conversation; this node when no cluster is configured.
+     */
+    public String owner(String conversationId) {
+        if (ring.isEmpty()) {
+            return self;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(conversationId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public boolean isLocal(String conversationId) {
+        return self.equals(owner(conversationId));
+    }
+
+    public String self() {
+        return self;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
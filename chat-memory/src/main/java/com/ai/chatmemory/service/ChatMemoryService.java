@@ -1,31 +1,38 @@
 package com.ai.chatmemory.service;
 
-import java.util.UUID;
+import com.ai.chatmemory.advisor.PersistingChatMemoryAdvisor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.annotation.SessionScope;
+import reactor.core.publisher.Flux;
 
 /**
+ * Stateless conversation service: one immutable {@link ChatClient} serves every conversation,
+ * the conversation is picked per call by its id.
  * @author avinash
  */
 @Service
-@SessionScope
 public class ChatMemoryService {
 
     private final ChatClient chatClient;
-    private final String conversationId;
+    private final Timer firstToken;
 
-    public ChatMemoryService(ChatModel chatModel, ChatMemory chatMemory) {
+    public ChatMemoryService(ChatModel chatModel, ChatMemory chatMemory, MeterRegistry meterRegistry) {
         this.chatClient = ChatClient.builder(chatModel)
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .defaultAdvisors(new PersistingChatMemoryAdvisor(chatMemory))
                 .build();
-        conversationId = UUID.randomUUID().toString();
+        this.firstToken = Timer.builder("ai.chat.stream.first-token")
+                .description("Time from request to the first streamed token")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
-    public String chat(String prompt) {
+    public String chat(String conversationId, String prompt) {
         return chatClient.prompt()
                 .user(userMessage -> userMessage.text(prompt))
                 .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId))
@@ -33,4 +40,26 @@ public class ChatMemoryService {
                 .content();
     }
 
+    /**
+     * Streams the answer token by token; the conversation memory is updated once the stream
+     * completes or the client cancels it.
+     */
+    public Flux<String> stream(String conversationId, String prompt) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return chatClient.prompt()
+                    .user(userMessage -> userMessage.text(prompt))
+                    .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId))
+                    .stream()
+                    .content()
+                    .filter(token -> !token.isEmpty())
+                    .doOnNext(token -> {
+                        if (first.compareAndSet(true, false)) {
+                            firstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    });
+        });
+    }
+
 }
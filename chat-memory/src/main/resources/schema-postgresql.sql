@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS chat_memory_message (
+    conversation_id VARCHAR(36) NOT NULL,
+    type            VARCHAR(10) NOT NULL CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')),
+    content         BYTEA       NOT NULL,
+    created_at      TIMESTAMP   NOT NULL
+) PARTITION BY RANGE (created_at);
+
+-- daily partitions are created ahead of time by ChatMemoryRetentionJob
+CREATE TABLE IF NOT EXISTS chat_memory_message_default PARTITION OF chat_memory_message DEFAULT;
+
+CREATE INDEX IF NOT EXISTS chat_memory_message_conversation_idx
+    ON chat_memory_message (conversation_id, created_at);
+
+CREATE INDEX IF NOT EXISTS chat_memory_message_created_at_idx
+    ON chat_memory_message (created_at);
+
+CREATE TABLE IF NOT EXISTS chat_memory_message_archive (
+    conversation_id VARCHAR(36) NOT NULL,
+    type            VARCHAR(10) NOT NULL,
+    content         BYTEA       NOT NULL,
+    created_at      TIMESTAMP   NOT NULL
+);
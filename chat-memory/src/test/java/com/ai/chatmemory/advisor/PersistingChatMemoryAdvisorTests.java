@@ -0,0 +1,87 @@
+package com.ai.chatmemory.advisor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistingChatMemoryAdvisorTests {
+
+    private final ChatMemory chatMemory = MessageWindowChatMemory.builder()
+            .chatMemoryRepository(new InMemoryChatMemoryRepository())
+            .build();
+    private final TokenModel chatModel = new TokenModel();
+    private final ChatClient chatClient = ChatClient.builder(chatModel)
+            .defaultAdvisors(new PersistingChatMemoryAdvisor(chatMemory))
+            .build();
+
+    @Test
+    void completedStreamIsStoredOnceAndSentAsHistory() {
+        List<String> tokens = stream("c1", "hello").collectList().block();
+
+        assertThat(tokens).containsExactly("Hel", "lo", " there");
+        assertThat(chatMemory.get("c1")).extracting(Message::getText).containsExactly("hello", "Hello there");
+
+        stream("c1", "again").blockLast();
+        assertThat(chatModel.lastPromptSize.get()).isEqualTo(3);
+        assertThat(chatMemory.get("c1")).hasSize(4);
+    }
+
+    @Test
+    void cancelledStreamStoresThePartialAnswer() {
+        stream("c2", "hello").take(2).blockLast();
+
+        assertThat(chatMemory.get("c2")).extracting(Message::getText).containsExactly("hello", "Hello");
+    }
+
+    @Test
+    void failedStreamStoresThePartialAnswer() {
+        chatModel.failAfter = 2;
+
+        assertThatThrownBy(() -> stream("c3", "hello").blockLast()).hasMessageContaining("upstream reset");
+        assertThat(chatMemory.get("c3")).extracting(Message::getText).containsExactly("hello", "Hello");
+    }
+
+    private Flux<String> stream(String conversationId, String prompt) {
+        return chatClient.prompt()
+                .user(prompt)
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId))
+                .stream()
+                .content();
+    }
+
+    private static final class TokenModel implements ChatModel {
+
+        private final AtomicInteger lastPromptSize = new AtomicInteger();
+        private volatile int failAfter = -1;
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            lastPromptSize.set(prompt.getInstructions().size());
+            Flux<String> tokens = Flux.just("Hel", "lo", " there");
+            if (failAfter >= 0) {
+                tokens = tokens.take(failAfter).concatWith(Flux.error(new IllegalStateException("upstream reset")));
+            }
+            return tokens.map(token -> new ChatResponse(List.of(new Generation(new AssistantMessage(token)))));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ai.chatmemory.loadtest;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+/**
+ * Measures the heap retained per active conversation by the conversation service itself,
+ * before (one {@code ChatClient} and advisor chain per HTTP session) and after (one shared
+ * {@code ChatClient}, conversations addressed by id). Message history is identical in both
+ * setups and therefore left out.
+ * <pre>
+ * java -Xmx1g ... com.ai.chatmemory.loadtest.ConversationFootprint 10000
+ * </pre>
+ */
+public class ConversationFootprint {
+
+    public static void main(String[] args) {
+        int conversations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        ChatModel chatModel = prompt -> new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+        ChatMemory chatMemory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(new InMemoryChatMemoryRepository())
+                .build();
+
+        long baseline = usedHeap();
+        List<Object> sessions = new ArrayList<>(conversations);
+        for (int i = 0; i < conversations; i++) {
+            ChatClient chatClient = ChatClient.builder(chatModel)
+                    .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                    .build();
+            sessions.add(new Object[] {chatClient, UUID.randomUUID().toString()});
+        }
+        long perSession = usedHeap() - baseline;
+        Reference.reachabilityFence(sessions);
+        sessions.clear();
+
+        baseline = usedHeap();
+        ChatClient shared = ChatClient.builder(chatModel)
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .build();
+        List<String> ids = new ArrayList<>(conversations);
+        for (int i = 0; i < conversations; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        long stateless = usedHeap() - baseline;
+
+        System.out.printf("conversations=%d%n", conversations);
+        System.out.printf("session scoped: %,d KiB (%,d bytes/conversation)%n",
+                perSession / 1024, perSession / conversations);
+        System.out.printf("stateless:      %,d KiB (%,d bytes/conversation)%n",
+                stateless / 1024, stateless / conversations);
+        Reference.reachabilityFence(shared);
+        Reference.reachabilityFence(ids);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ai.chatmemory.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactingChatMemoryTests {
+
+    private static final int BUDGET = 400;
+    private static final String FILLER = " The user keeps talking about a long list of details that matter a little.".repeat(3);
+
+    private final InMemoryChatMemoryRepository repository = new InMemoryChatMemoryRepository();
+    private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger summaries = new AtomicInteger();
+
+    @Test
+    void historyStaysWithinBudgetAndIsSummarized() throws InterruptedException {
+        ChatModel summarizer = prompt -> new ChatResponse(List.of(
+                new Generation(new AssistantMessage("summary " + summaries.incrementAndGet()))));
+        try (CompactingChatMemory chatMemory = chatMemory(summarizer)) {
+            for (int turn = 0; turn < 50; turn++) {
+                assertThat(tokens(chatMemory.get("c1"))).isLessThanOrEqualTo(BUDGET);
+                chatMemory.add("c1", new UserMessage("question " + turn + FILLER));
+                chatMemory.add("c1", new AssistantMessage("answer " + turn + FILLER));
+                Thread.sleep(5);
+            }
+            awaitCompactions();
+
+            List<Message> stored = repository.findByConversationId("c1");
+            assertThat(stored.getFirst().getMessageType()).isEqualTo(MessageType.SYSTEM);
+            assertThat(stored.getFirst().getText()).startsWith("Summary of the earlier conversation (");
+            assertThat(stored.getLast().getText()).startsWith("answer 49");
+            assertThat(summaries.get()).isPositive();
+            assertThat(tokens(chatMemory.get("c1"))).isLessThanOrEqualTo(BUDGET);
+            assertThat(meterRegistry.get("ai.chat.memory.tokens.saved").summary().max()).isPositive();
+        }
+    }
+
+    @Test
+    void failingSummarizerStillBoundsThePrompt() {
+        ChatModel summarizer = prompt -> {
+            throw new IllegalStateException("model unavailable");
+        };
+        try (CompactingChatMemory chatMemory = chatMemory(summarizer)) {
+            for (int turn = 0; turn < 20; turn++) {
+                chatMemory.add("c2", new UserMessage("question " + turn + FILLER));
+                chatMemory.add("c2", new AssistantMessage("answer " + turn + FILLER));
+                assertThat(tokens(chatMemory.get("c2"))).isLessThanOrEqualTo(BUDGET);
+            }
+            assertThat(chatMemory.get("c2").getLast().getText()).startsWith("answer 19");
+        }
+        assertThat(meterRegistry.get("ai.chat.memory.compactions").tag("result", "failure").counter().count())
+                .isPositive();
+    }
+
+    private CompactingChatMemory chatMemory(ChatModel summarizer) {
+        return new CompactingChatMemory(repository, summarizer, estimator, BUDGET, 200, 50, 100, meterRegistry);
+    }
+
+    private void awaitCompactions() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            int before = summaries.get();
+            Thread.sleep(20);
+            if (before == summaries.get()) {
+                return;
+            }
+        }
+    }
+
+    private int tokens(List<Message> messages) {
+        return messages.stream().mapToInt(message -> estimator.estimate(message.getText())).sum();
+    }
+}
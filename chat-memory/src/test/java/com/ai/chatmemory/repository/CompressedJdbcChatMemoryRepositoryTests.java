@@ -0,0 +1,130 @@
+package com.ai.chatmemory.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedJdbcChatMemoryRepositoryTests {
+
+    private static final Duration RETENTION = Duration.ofDays(30);
+
+    private final MessageCodec codec = new MessageCodec(256);
+    private JdbcTemplate jdbcTemplate;
+    private CompressedJdbcChatMemoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new CompressedJdbcChatMemoryRepository(jdbcTemplate, 6, RETENTION, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void storesLargeBodiesCompressed() {
+        String answer = "Spring AI keeps the conversation in a relational table. ".repeat(100);
+        repository.saveAll("c1", List.of(new UserMessage("short question"), new AssistantMessage(answer)));
+
+        assertThat(repository.findByConversationId("c1")).extracting(Message::getText)
+                .containsExactly("short question", answer);
+        List<Integer> sizes = jdbcTemplate.queryForList(
+                "SELECT OCTET_LENGTH(content) FROM chat_memory_message ORDER BY created_at", Integer.class);
+        assertThat(sizes.get(0)).isEqualTo("short question".length() + 1);
+        assertThat(sizes.get(1)).isLessThan(answer.length() / 10);
+    }
+
+    @Test
+    void readsTheLatestMessagesInOrder() {
+        List<AppendingChatMemoryRepository.ConversationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(new AppendingChatMemoryRepository.ConversationMessage("c2", new UserMessage("message " + i)));
+        }
+        repository.append(messages);
+
+        assertThat(repository.findByConversationId("c2")).extracting(Message::getText)
+                .containsExactly("message 4", "message 5", "message 6", "message 7", "message 8", "message 9");
+    }
+
+    @Test
+    void expiredRowsAreHiddenAndArchivedInBatches() {
+        long expired = System.currentTimeMillis() - RETENTION.toMillis() - Duration.ofDays(1).toMillis();
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update("INSERT INTO chat_memory_message (conversation_id, type, content, created_at) VALUES (?, ?, ?, ?)",
+                    i % 2 == 0 ? "c3" : "c4", "USER", codec.encode("old " + i),
+                    CompressedJdbcChatMemoryRepository.utc(expired + i));
+        }
+        repository.append(List.of(new AppendingChatMemoryRepository.ConversationMessage("c3", new UserMessage("recent"))));
+        assertThat(repository.findByConversationId("c3")).extracting(Message::getText).containsExactly("recent");
+        assertThat(repository.findByConversationId("c4")).isEmpty();
+        assertThat(repository.findConversationIds()).containsExactly("c3");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new ChatMemoryRetentionJob(jdbcTemplate, RETENTION, true, false, 3, 3, meterRegistry).run();
+
+        assertThat(count("chat_memory_message")).isEqualTo(1);
+        assertThat(count("chat_memory_message_archive")).isEqualTo(10);
+        assertThat(meterRegistry.get("ai.chat.memory.retention.rows").tag("action", "archived").counter().count())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void activeConversationsKeepTheirWindowPastTheRetentionPeriod() {
+        long started = System.currentTimeMillis() - RETENTION.toMillis() + Duration.ofHours(1).toMillis();
+        insertAt("c5", "summary", started);
+        for (int i = 1; i < 8; i++) {
+            insertAt("c5", "turn " + i, started + i);
+        }
+        repository.append(List.of(new AppendingChatMemoryRepository.ConversationMessage("c5", new UserMessage("latest"))));
+
+        // the window moved to the current day, while the turns before it keep their age
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chat_memory_message WHERE conversation_id = 'c5' "
+                + "AND created_at < ?", Integer.class, CompressedJdbcChatMemoryRepository.utc(started + 10))).isEqualTo(2);
+        assertThat(repository.findByConversationId("c5")).extracting(Message::getText)
+                .containsExactly("turn 3", "turn 4", "turn 5", "turn 6", "turn 7", "latest");
+
+        new ChatMemoryRetentionJob(jdbcTemplate, Duration.ofHours(2), false, false, 3, 3, new SimpleMeterRegistry())
+                .run();
+        assertThat(repository.findByConversationId("c5")).extracting(Message::getText)
+                .containsExactly("turn 3", "turn 4", "turn 5", "turn 6", "turn 7", "latest");
+    }
+
+    @Test
+    void timestampsAreStoredInUtc() {
+        repository.append(List.of(new AppendingChatMemoryRepository.ConversationMessage("c6", new UserMessage("now"))));
+
+        LocalDateTime stored = jdbcTemplate.queryForObject("SELECT created_at FROM chat_memory_message", LocalDateTime.class);
+        assertThat(Duration.between(stored, LocalDateTime.now(ZoneOffset.UTC)).abs()).isLessThan(Duration.ofMinutes(1));
+    }
+
+    private void insertAt(String conversationId, String text, long epochMillis) {
+        jdbcTemplate.update("INSERT INTO chat_memory_message (conversation_id, type, content, created_at) VALUES (?, ?, ?, ?)",
+                conversationId, "USER", codec.encode(text), CompressedJdbcChatMemoryRepository.utc(epochMillis));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
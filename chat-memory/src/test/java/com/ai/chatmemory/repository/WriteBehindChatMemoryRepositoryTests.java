@@ -0,0 +1,163 @@
+package com.ai.chatmemory.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindChatMemoryRepositoryTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private CountingRepository jdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcRepository = new CountingRepository(
+                new CompressedJdbcChatMemoryRepository(jdbcTemplate, 6, Duration.ofDays(30), 256));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void appendsOnlyNewMessagesAndServesReadsFromMemory() {
+        try (WriteBehindChatMemoryRepository repository = repository(Duration.ofMinutes(10))) {
+            ChatMemory chatMemory = MessageWindowChatMemory.builder()
+                    .chatMemoryRepository(repository)
+                    .maxMessages(6)
+                    .build();
+            for (int turn = 0; turn < 10; turn++) {
+                chatMemory.add("c1", List.of(new UserMessage("question " + turn)));
+                chatMemory.add("c1", new AssistantMessage("answer " + turn));
+                chatMemory.get("c1");
+            }
+            assertThat(rows("c1")).isZero();
+            repository.flush();
+
+            assertThat(rows("c1")).isEqualTo(20);
+            assertThat(jdbcRepository.reads.get()).isEqualTo(1);
+            assertThat(jdbcRepository.writes.get()).isZero();
+            assertThat(chatMemory.get("c1")).extracting(Message::getText)
+                    .containsExactly("question 7", "answer 7", "question 8", "answer 8", "question 9", "answer 9");
+        }
+    }
+
+    @Test
+    void closeFlushesPendingRowsAndAColdRepositoryReadsThemBack() {
+        WriteBehindChatMemoryRepository repository = repository(Duration.ofMinutes(10));
+        repository.saveAll("c2", List.of(new UserMessage("hello"), new AssistantMessage("hi")));
+        assertThat(repository.pendingRows()).isEqualTo(2);
+        repository.close();
+
+        try (WriteBehindChatMemoryRepository reopened = repository(Duration.ofMinutes(10))) {
+            assertThat(reopened.findByConversationId("c2")).extracting(Message::getText)
+                    .containsExactly("hello", "hi");
+            assertThat(reopened.findConversationIds()).containsExactly("c2");
+        }
+    }
+
+    @Test
+    void replacedSystemMessageRewritesTheConversation() {
+        try (WriteBehindChatMemoryRepository repository = repository(Duration.ofMinutes(10))) {
+            repository.saveAll("c3", List.of(new SystemMessage("be brief"), new UserMessage("hello")));
+            repository.saveAll("c3", List.of(new UserMessage("hello"), new SystemMessage("be verbose")));
+            repository.flush();
+
+            assertThat(jdbcRepository.writes.get()).isEqualTo(1);
+            assertThat(jdbcRepository.findByConversationId("c3")).extracting(Message::getText)
+                    .containsExactly("hello", "be verbose");
+        }
+    }
+
+    @Test
+    void deleteDropsPendingRows() {
+        try (WriteBehindChatMemoryRepository repository = repository(Duration.ofMinutes(10))) {
+            repository.saveAll("c4", List.of(new UserMessage("hello")));
+            repository.deleteByConversationId("c4");
+            repository.flush();
+
+            assertThat(rows("c4")).isZero();
+            assertThat(repository.findByConversationId("c4")).isEmpty();
+        }
+    }
+
+    @Test
+    void backgroundTaskFlushes() throws InterruptedException {
+        try (WriteBehindChatMemoryRepository repository = repository(Duration.ofMillis(20))) {
+            repository.saveAll("c5", List.of(new UserMessage("hello")));
+            for (int i = 0; i < 100 && rows("c5") == 0; i++) {
+                Thread.sleep(20);
+            }
+            assertThat(rows("c5")).isEqualTo(1);
+        }
+    }
+
+    private WriteBehindChatMemoryRepository repository(Duration flushInterval) {
+        return new WriteBehindChatMemoryRepository(jdbcRepository, 6, 100, 50, 1000, flushInterval);
+    }
+
+    private int rows(String conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_memory_message WHERE conversation_id = ?", Integer.class, conversationId);
+    }
+
+    private static final class CountingRepository implements AppendingChatMemoryRepository {
+
+        private final AppendingChatMemoryRepository delegate;
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger writes = new AtomicInteger();
+
+        private CountingRepository(AppendingChatMemoryRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<String> findConversationIds() {
+            return delegate.findConversationIds();
+        }
+
+        @Override
+        public List<Message> findByConversationId(String conversationId) {
+            reads.incrementAndGet();
+            return delegate.findByConversationId(conversationId);
+        }
+
+        @Override
+        public void saveAll(String conversationId, List<Message> messages) {
+            writes.incrementAndGet();
+            delegate.saveAll(conversationId, messages);
+        }
+
+        @Override
+        public void append(List<ConversationMessage> messages) {
+            delegate.append(messages);
+        }
+
+        @Override
+        public void deleteByConversationId(String conversationId) {
+            delegate.deleteByConversationId(conversationId);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ai.chatmemory.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationRouterTests {
+
+    private static final List<String> NODES = List.of("http://chat-1:8080", "http://chat-2:8080", "http://chat-3:8080");
+
+    @Test
+    void spreadsConversationsEvenly() {
+        ConversationRouter router = new ConversationRouter(NODES.getFirst(), NODES, 128);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(router.owner(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        assertThat(owned).hasSize(3);
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(8_000, 12_000));
+    }
+
+    @Test
+    void addingANodeOnlyMovesItsShare() {
+        ConversationRouter before = new ConversationRouter(NODES.getFirst(), NODES, 128);
+        List<String> grown = List.of(NODES.get(0), NODES.get(1), NODES.get(2), "http://chat-4:8080");
+        ConversationRouter after = new ConversationRouter(NODES.getFirst(), grown, 128);
+
+        int moved = 0;
+        int total = 20_000;
+        for (int i = 0; i < total; i++) {
+            String id = UUID.randomUUID().toString();
+            if (!before.owner(id).equals(after.owner(id))) {
+                moved++;
+                assertThat(after.owner(id)).isEqualTo("http://chat-4:8080");
+            }
+        }
+        assertThat((double) moved / total).isBetween(0.15, 0.35);
+    }
+
+    @Test
+    void withoutClusterEveryConversationIsLocal() {
+        ConversationRouter router = new ConversationRouter("local", List.of(), 128);
+        assertThat(router.isLocal("any")).isTrue();
+    }
+}
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS chat_memory_message (
+    conversation_id VARCHAR(36) NOT NULL,
+    type            VARCHAR(10) NOT NULL CHECK (type IN ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL')),
+    content         VARBINARY   NOT NULL,
+    created_at      TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS chat_memory_message_conversation_idx
+    ON chat_memory_message (conversation_id, created_at);
+
+CREATE INDEX IF NOT EXISTS chat_memory_message_created_at_idx
+    ON chat_memory_message (created_at);
+
+CREATE TABLE IF NOT EXISTS chat_memory_message_archive (
+    conversation_id VARCHAR(36) NOT NULL,
+    type            VARCHAR(10) NOT NULL,
+    content         VARBINARY   NOT NULL,
+    created_at      TIMESTAMP   NOT NULL
+);
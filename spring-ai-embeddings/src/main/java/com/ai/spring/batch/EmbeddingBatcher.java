@@ -0,0 +1,173 @@
+package com.ai.spring.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * Micro-batching front end for an {@link EmbeddingModel}.
+ * <p>
+ * Single texts submitted concurrently are collected until either {@code maxBatchSize} items
+ * are queued or {@code linger} has passed since the first one arrived, and are then sent as
+ * one {@code embedForResponse} call. Each caller's future is completed with its own vector.
+ * At most {@code maxConcurrentBatches} requests are in flight upstream; while they are busy,
+ * new texts keep accumulating into the next (fuller) batch. A caller waits at most
+ * {@code timeout} for its vector.
+ * <p>
+ * {@link #close} fails every text that has not been sent yet, including a batch the dispatcher
+ * was still collecting or holding for a free slot, so no caller is left waiting on shutdown.
+ * @author avinash
+ */
+public class EmbeddingBatcher implements AutoCloseable {
+
+    private final EmbeddingModel embeddingModel;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final DistributionSummary batchSize;
+    private final DistributionSummary fillRatio;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public EmbeddingBatcher(EmbeddingModel embeddingModel, int maxBatchSize, Duration linger,
+                            int maxConcurrentBatches, Duration timeout, MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.timeout = timeout;
+        this.inFlight = new Semaphore(maxConcurrentBatches);
+        this.batchSize = DistributionSummary.builder("ai.embedding.batch.size")
+                .description("Number of texts sent per upstream embedding call")
+                .register(meterRegistry);
+        this.fillRatio = DistributionSummary.builder("ai.embedding.batch.fill.ratio")
+                .description("Batch size relative to the configured maximum")
+                .register(meterRegistry);
+        this.dispatcher = Thread.ofPlatform()
+                .name("embedding-batcher")
+                .daemon()
+                .start(this::dispatch);
+    }
+
+    /**
+     * Queues a single text for embedding.
+     */
+    public CompletableFuture<EmbeddingResponse> submit(String text) {
+        if (!running) {
+            return CompletableFuture.failedFuture(shutDown());
+        }
+        Pending pending = new Pending(text, new CompletableFuture<>(), System.nanoTime());
+        queue.add(pending);
+        // close() may have drained the queue between the check above and the add
+        if (!running && queue.remove(pending)) {
+            pending.future().completeExceptionally(shutDown());
+        }
+        return pending.future().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining);
+        executor.close();
+    }
+
+    private void dispatch() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, first);
+                inFlight.acquire();
+                // anything that queued up while waiting for a free slot joins this batch
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                List<Pending> ready = batch;
+                batch = new ArrayList<>(maxBatchSize);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            send(ready);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    fail(ready);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // close() interrupted a batch that was still being collected or waiting for a slot
+        fail(batch);
+    }
+
+    private void collect(List<Pending> batch, Pending first) throws InterruptedException {
+        long deadline = first.enqueuedAt() + linger.toNanos();
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batchSize.record(batch.size());
+        fillRatio.record((double) batch.size() / maxBatchSize);
+        try {
+            EmbeddingResponse response = embeddingModel.embedForResponse(batch.stream().map(Pending::text).toList());
+            List<Embedding> results = response.getResults();
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " embeddings but got " + results.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Embedding embedding = new Embedding(results.get(i).getOutput(), 0);
+                batch.get(i).future().complete(new EmbeddingResponse(List.of(embedding), response.getMetadata()));
+            }
+        } catch (Exception e) {
+            batch.forEach(p -> p.future().completeExceptionally(e));
+        }
+    }
+
+    private static void fail(List<Pending> pending) {
+        pending.forEach(p -> p.future().completeExceptionally(shutDown()));
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("Embedding batcher is shut down");
+    }
+
+    private record Pending(String text, CompletableFuture<EmbeddingResponse> future, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.ai.spring.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of embedding vectors keyed by a content hash of (model, text).
+ * <p>
+ * Vectors are stored as packed floats outside the Java heap, in fixed-size slabs that are
+ * allocated on demand: 1024 floats cost 4 KB instead of ~20 KB as a boxed {@code List<Double>}.
+ * When a directory is configured the slabs are memory-mapped from {@code vectors.bin} and the
+ * key index is written to {@code index.bin} on shutdown, so the cache survives restarts. The
+ * index is deleted as soon as it has been loaded: slots are rewritten while the cache runs, so
+ * only an index written by a clean {@link #close()} matches the vectors in the file, and after a
+ * crash the cache starts empty instead of returning vectors of other texts.
+ * @author avinash
+ */
+public class EmbeddingCache implements AutoCloseable {
+
+    private static final int SLAB_BYTES = 64 * 1024 * 1024;
+
+    private final String model;
+    private final int dimensions;
+    private final int maxEntries;
+    private final int slotsPerSlab;
+    private final FloatBuffer[] slabs;
+    private final MappedByteBuffer[] mapped;
+    private final FileChannel channel;
+    private final Path directory;
+    private final Map<ContentHash, Integer> index;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+    private final Counter hits;
+    private final Counter misses;
+
+    public EmbeddingCache(String model, int dimensions, int maxEntries, Path directory, MeterRegistry meterRegistry) {
+        this.model = model;
+        this.dimensions = dimensions;
+        this.maxEntries = maxEntries;
+        this.slotsPerSlab = Math.max(1, SLAB_BYTES / (dimensions * Float.BYTES));
+        int slabCount = (maxEntries + slotsPerSlab - 1) / slotsPerSlab;
+        this.slabs = new FloatBuffer[slabCount];
+        this.mapped = new MappedByteBuffer[slabCount];
+        this.directory = directory;
+        this.index = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = Counter.builder("ai.embedding.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.embedding.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.embedding.cache.size", this, EmbeddingCache::size).register(meterRegistry);
+
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+                this.channel = FileChannel.open(directory.resolve("vectors.bin"),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open embedding cache in " + directory, e);
+            }
+            loadIndex();
+        } else {
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Returns a copy of the cached vector, or {@code null} when the text has not been embedded yet.
+     */
+    public synchronized float[] get(String text) {
+        Integer slot = index.get(hash(text));
+        if (slot == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        float[] vector = new float[dimensions];
+        slab(slot).get(offset(slot), vector);
+        return vector;
+    }
+
+    public synchronized void put(String text, float[] vector) {
+        if (vector.length != dimensions || maxEntries == 0) {
+            return;
+        }
+        ContentHash key = hash(text);
+        Integer slot = index.get(key);
+        if (slot == null) {
+            slot = allocateSlot();
+            index.put(key, slot);
+        }
+        slab(slot).put(offset(slot), vector);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            for (MappedByteBuffer buffer : mapped) {
+                if (buffer != null) {
+                    buffer.force();
+                }
+            }
+            writeIndex();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot persist embedding cache to " + directory, e);
+        }
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.poll();
+        }
+        if (nextSlot < maxEntries) {
+            return nextSlot++;
+        }
+        // evict the least recently used entry and reuse its slot
+        var eldest = index.entrySet().iterator();
+        int slot = eldest.next().getValue();
+        eldest.remove();
+        return slot;
+    }
+
+    private FloatBuffer slab(int slot) {
+        int slabIndex = slot / slotsPerSlab;
+        if (slabs[slabIndex] == null) {
+            int bytes = slotsPerSlab * dimensions * Float.BYTES;
+            ByteBuffer buffer;
+            if (channel != null) {
+                try {
+                    mapped[slabIndex] = channel.map(FileChannel.MapMode.READ_WRITE, (long) slabIndex * bytes, bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot map embedding cache slab " + slabIndex, e);
+                }
+                buffer = mapped[slabIndex];
+            } else {
+                buffer = ByteBuffer.allocateDirect(bytes);
+            }
+            slabs[slabIndex] = buffer.order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+        return slabs[slabIndex];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSlab) * dimensions;
+    }
+
+    private ContentHash hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+            return new ContentHash(hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void loadIndex() {
+        Path file = directory.resolve("index.bin");
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (var in = new DataInputStream(Files.newInputStream(file))) {
+            boolean compatible = in.readInt() == dimensions && in.readInt() == slotsPerSlab;
+            int count = compatible ? in.readInt() : 0;
+            boolean[] used = new boolean[maxEntries];
+            for (int i = 0; i < count; i++) {
+                ContentHash key = new ContentHash(in.readLong(), in.readLong());
+                int slot = in.readInt();
+                if (slot < maxEntries) {
+                    index.put(key, slot);
+                    used[slot] = true;
+                    nextSlot = Math.max(nextSlot, slot + 1);
+                }
+            }
+            for (int slot = 0; slot < nextSlot; slot++) {
+                if (!used[slot]) {
+                    freeSlots.add(slot);
+                }
+            }
+        } catch (IOException e) {
+            clearIndex();
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            // a stale index would outlive the next crash
+            clearIndex();
+        }
+    }
+
+    private void clearIndex() {
+        index.clear();
+        freeSlots.clear();
+        nextSlot = 0;
+    }
+
+    private void writeIndex() throws IOException {
+        Path tmp = directory.resolve("index.bin.tmp");
+        try (var out = new DataOutputStream(Files.newOutputStream(tmp))) {
+            out.writeInt(dimensions);
+            out.writeInt(slotsPerSlab);
+            out.writeInt(index.size());
+            for (Map.Entry<ContentHash, Integer> entry : index.entrySet()) {
+                out.writeLong(entry.getKey().high());
+                out.writeLong(entry.getKey().low());
+                out.writeInt(entry.getValue());
+            }
+        }
+        Files.move(tmp, directory.resolve("index.bin"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record ContentHash(long high, long low) {
+    }
+}
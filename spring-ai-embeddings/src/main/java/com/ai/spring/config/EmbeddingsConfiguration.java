@@ -1,5 +1,14 @@
 package com.ai.spring.config;
 
+import com.ai.spring.batch.EmbeddingBatcher;
+import com.ai.spring.cache.EmbeddingCache;
+import com.ai.spring.index.HnswIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import org.springframework.ai.mistralai.MistralAiEmbeddingModel;
 import org.springframework.ai.mistralai.MistralAiEmbeddingOptions;
 import org.springframework.ai.mistralai.api.MistralAiApi;
@@ -13,17 +22,76 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class EmbeddingsConfiguration {
 
+    public static final String EMBEDDING_MODEL = "mistral-embed";
+
     @Value("${spring.ai.mistralai.api-key}")
     private String apiKey;
 
+    @Value("${ai.embedding.batch.max-size:32}")
+    private int batchMaxSize;
+
+    @Value("${ai.embedding.batch.linger:10ms}")
+    private Duration batchLinger;
+
+    @Value("${ai.embedding.batch.max-concurrent:4}")
+    private int batchMaxConcurrent;
+
+    @Value("${ai.embedding.batch.timeout:30s}")
+    private Duration batchTimeout;
+
+    @Value("${ai.embedding.dimensions:1024}")
+    private int dimensions;
+
+    @Value("${ai.embedding.cache.max-entries:100000}")
+    private int cacheMaxEntries;
+
+    @Value("${ai.embedding.cache.path:}")
+    private String cachePath;
+
+    @Value("${ai.index.m:16}")
+    private int indexM;
+
+    @Value("${ai.index.ef-construction:200}")
+    private int indexEfConstruction;
+
+    @Value("${ai.index.ef-search:64}")
+    private int indexEfSearch;
+
+    @Value("${ai.index.snapshot-path:}")
+    private String indexSnapshotPath;
+
     @Bean
     public MistralAiEmbeddingModel mistralAiEmbeddingModel() {
         var mistralAiApi = new MistralAiApi(apiKey);
         var embeddingModel = new MistralAiEmbeddingModel(mistralAiApi,
                 MistralAiEmbeddingOptions.builder()
-                        .withModel("mistral-embed")
+                        .withModel(EMBEDDING_MODEL)
                         .withEncodingFormat("float")
                         .build());
         return embeddingModel;
     }
+
+    @Bean
+    public EmbeddingBatcher embeddingBatcher(MistralAiEmbeddingModel embeddingModel, MeterRegistry meterRegistry) {
+        return new EmbeddingBatcher(embeddingModel, batchMaxSize, batchLinger, batchMaxConcurrent, batchTimeout,
+                meterRegistry);
+    }
+
+    @Bean
+    public EmbeddingCache embeddingCache(MeterRegistry meterRegistry) {
+        Path directory = cachePath.isBlank() ? null : Path.of(cachePath);
+        return new EmbeddingCache(EMBEDDING_MODEL, dimensions, cacheMaxEntries, directory, meterRegistry);
+    }
+
+    @Bean
+    public HnswIndex hnswIndex() {
+        if (!indexSnapshotPath.isBlank() && Files.exists(Path.of(indexSnapshotPath))) {
+            try {
+                return HnswIndex.load(Path.of(indexSnapshotPath), indexEfSearch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load index snapshot " + indexSnapshotPath, e);
+            }
+        }
+        return new HnswIndex(dimensions, indexM, indexEfConstruction, indexEfSearch);
+    }
 }
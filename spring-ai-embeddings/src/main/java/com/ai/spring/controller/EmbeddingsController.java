@@ -1,14 +1,21 @@
 package com.ai.spring.controller;
 
+import com.ai.spring.model.SimilarPair;
+import com.ai.spring.service.BulkEmbeddingService;
+import com.ai.spring.model.SimilarityMatrix;
 import com.ai.spring.service.EmbeddingsService;
+import com.ai.spring.similarity.SimilarityEngine;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author avinash
@@ -16,17 +23,17 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class EmbeddingsController {
 
-    private final EmbeddingModel embeddingModel;
     private final EmbeddingsService embeddingsService;
+    private final BulkEmbeddingService bulkEmbeddingService;
 
-    public EmbeddingsController(EmbeddingModel embeddingModel, EmbeddingsService embeddingsService) {
-        this.embeddingModel = embeddingModel;
+    public EmbeddingsController(EmbeddingsService embeddingsService, BulkEmbeddingService bulkEmbeddingService) {
         this.embeddingsService = embeddingsService;
+        this.bulkEmbeddingService = bulkEmbeddingService;
     }
 
     @GetMapping("/ai/embedding")
     public Map embed(@RequestParam(value = "message", defaultValue = "Tell me a joke") String message) {
-        var embeddingResponse = this.embeddingModel.embedForResponse(List.of(message));
+        var embeddingResponse = this.embeddingsService.embed(message);
         return Map.of("embedding", embeddingResponse);
     }
 
@@ -35,4 +42,29 @@ public class EmbeddingsController {
         var embeddingResponse = this.embeddingsService.similarity(message);
         return ResponseEntity.ok(embeddingResponse);
     }
+
+    @GetMapping("/ai/embedding/similarity/matrix")
+    public ResponseEntity<SimilarityMatrix> similarityMatrix(@RequestParam(value = "messages") List<String> messages,
+                                                             @RequestParam(value = "metric", defaultValue = "COSINE") SimilarityEngine.Metric metric) {
+        return ResponseEntity.ok(this.embeddingsService.similarityMatrix(messages, metric));
+    }
+
+    @GetMapping("/ai/embedding/similarity/top")
+    public ResponseEntity<List<SimilarPair>> mostSimilar(@RequestParam(value = "messages") List<String> messages,
+                                                         @RequestParam(value = "metric", defaultValue = "COSINE") SimilarityEngine.Metric metric,
+                                                         @RequestParam(value = "k", defaultValue = "5") int k) {
+        return ResponseEntity.ok(this.embeddingsService.mostSimilar(messages, metric, k));
+    }
+
+    /**
+     * Streams NDJSON in and out: one document per input line, one embedding per output line.
+     */
+    @PostMapping(value = "/ai/embedding/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulk(InputStream body) {
+        StreamingResponseBody stream = out -> this.bulkEmbeddingService.embed(body, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
 }
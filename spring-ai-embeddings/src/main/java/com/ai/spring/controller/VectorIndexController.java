@@ -0,0 +1,53 @@
+package com.ai.spring.controller;
+
+import com.ai.spring.model.IndexDocument;
+import com.ai.spring.model.SearchHit;
+import com.ai.spring.service.VectorIndexService;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @author avinash
+ */
+@RestController
+public class VectorIndexController {
+
+    private final VectorIndexService vectorIndexService;
+
+    public VectorIndexController(VectorIndexService vectorIndexService) {
+        this.vectorIndexService = vectorIndexService;
+    }
+
+    @PostMapping("/ai/index/documents")
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody List<IndexDocument> documents) {
+        List<String> ids = this.vectorIndexService.ingest(documents);
+        return ResponseEntity.ok(Map.of("ids", ids, "size", this.vectorIndexService.size()));
+    }
+
+    @GetMapping("/ai/index/search")
+    public ResponseEntity<List<SearchHit>> search(@RequestParam(value = "query") String query,
+                                                  @RequestParam(value = "k", defaultValue = "5") int k) {
+        return ResponseEntity.ok(this.vectorIndexService.search(query, k));
+    }
+
+    @DeleteMapping("/ai/index/documents/{id}")
+    public ResponseEntity<Void> delete(@PathVariable("id") String id) {
+        return this.vectorIndexService.delete(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/ai/index/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        var file = this.vectorIndexService.snapshot();
+        return ResponseEntity.ok(Map.of("path", file.toString(), "size", this.vectorIndexService.size()));
+    }
+}
@@ -0,0 +1,487 @@
+package com.ai.spring.index;
+
+import com.ai.spring.model.SearchHit;
+import com.ai.spring.similarity.SimilarityKernel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process approximate nearest neighbour index (Hierarchical Navigable Small World graph)
+ * using cosine similarity.
+ * <p>
+ * Vectors are normalized on insert and packed into one {@code float[]}; graph links are plain
+ * {@code int[]} arrays whose first element holds the neighbour count. Deletes (and the old
+ * version of a re-added id) are tombstones: the node keeps routing searches but is never
+ * returned, and a search widens its candidate list by the tombstones it meets so that it still
+ * finds k live documents. Once more than a quarter of the nodes are tombstones the graph is
+ * rebuilt from the live documents, so storage does not grow under updates. Searches run
+ * concurrently under a read lock, inserts and deletes take the write lock.
+ * @author avinash
+ */
+public class HnswIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final double COMPACT_RATIO = 0.25;
+    private static final int COMPACT_MIN_DELETED = 64;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> nodesById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private float[] vectors;
+    private int[] levels;
+    private int[][][] links;
+    private String[] ids;
+    private String[] texts;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction, int efSearch) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(m);
+        allocate(1024);
+    }
+
+    /**
+     * Adds a document, replacing any previous document with the same id.
+     */
+    public void add(String id, String text, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodesById.remove(id);
+            if (previous != null) {
+                deleted.set(previous);
+                texts[previous] = null;
+            }
+            if (size == ids.length) {
+                allocate(size * 2);
+            }
+            int node = size++;
+            int offset = node * dimensions;
+            System.arraycopy(vector, 0, vectors, offset, dimensions);
+            normalize(offset);
+            ids[node] = id;
+            texts[node] = text;
+            nodesById.put(id, node);
+            insert(node);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean delete(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodesById.remove(id);
+            if (node == null) {
+                return false;
+            }
+            deleted.set(node);
+            texts[node] = null;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The k live documents most similar to the query, best first.
+     */
+    public List<SearchHit> search(float[] query, int k) {
+        float[] q = normalized(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = searchLayer(q, 0, ep, 1, level)[0].node();
+            }
+            int ef = Math.max(efSearch, k);
+            while (true) {
+                Scored[] candidates = searchLayer(q, 0, ep, ef, 0);
+                List<SearchHit> hits = new ArrayList<>(k);
+                int skipped = 0;
+                for (Scored candidate : candidates) {
+                    if (deleted.get(candidate.node())) {
+                        skipped++;
+                    } else if (hits.size() < k) {
+                        hits.add(new SearchHit(ids[candidate.node()], texts[candidate.node()], candidate.score()));
+                    }
+                }
+                // tombstones took candidate slots: search again with room for that many more
+                if (hits.size() == k || skipped == 0 || ef >= size) {
+                    return hits;
+                }
+                ef = Math.min(size, ef + skipped);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Exact search over all live documents; the reference for measuring recall.
+     */
+    public List<SearchHit> bruteForce(float[] query, int k) {
+        float[] q = normalized(query);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+            for (int node = 0; node < size; node++) {
+                if (deleted.get(node)) {
+                    continue;
+                }
+                best.add(new Scored(node, SimilarityKernel.dot(q, 0, vectors, node * dimensions, dimensions)));
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+            List<Scored> sorted = new ArrayList<>(best);
+            sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+            return sorted.stream().map(s -> new SearchHit(ids[s.node()], texts[s.node()], s.score())).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Nodes in the graph, live or tombstoned.
+     */
+    int nodes() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the graph from the live documents once tombstones make up more than
+     * {@link #COMPACT_RATIO} of it. Called with the write lock held.
+     */
+    private void compactIfNeeded() {
+        int tombstones = deleted.cardinality();
+        if (tombstones < COMPACT_MIN_DELETED || tombstones <= size * COMPACT_RATIO) {
+            return;
+        }
+        int live = size - tombstones;
+        float[] oldVectors = vectors;
+        String[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldSize = size;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+
+        vectors = null;
+        levels = null;
+        links = null;
+        ids = null;
+        texts = null;
+        allocate(Math.max(1024, live));
+        size = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+        deleted.clear();
+        nodesById.clear();
+        for (int old = 0; old < oldSize; old++) {
+            if (oldDeleted.get(old)) {
+                continue;
+            }
+            int node = size++;
+            System.arraycopy(oldVectors, old * dimensions, vectors, node * dimensions, dimensions);
+            ids[node] = oldIds[old];
+            texts[node] = oldTexts[old];
+            nodesById.put(ids[node], node);
+            insert(node);
+        }
+    }
+
+    private void insert(int node) {
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        levels[node] = level;
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int offset = node * dimensions;
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = searchLayer(vectors, offset, ep, 1, l)[0].node();
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            Scored[] candidates = searchLayer(vectors, offset, ep, efConstruction, l);
+            for (int i = 0; i < Math.min(m, candidates.length); i++) {
+                link(node, candidates[i].node(), l);
+                link(candidates[i].node(), node, l);
+            }
+            ep = candidates[0].node();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    /**
+     * Adds {@code to} to the neighbour list of {@code from}; when the list is full the
+     * least similar neighbour is dropped instead, if it is worse than the new one.
+     */
+    private void link(int from, int to, int level) {
+        int[] neighbours = links[from][level];
+        int count = neighbours[0];
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = to;
+            neighbours[0] = count + 1;
+            return;
+        }
+        int fromOffset = from * dimensions;
+        int worst = -1;
+        float worstScore = similarity(fromOffset, to);
+        for (int i = 1; i <= count; i++) {
+            float score = similarity(fromOffset, neighbours[i]);
+            if (score < worstScore) {
+                worst = i;
+                worstScore = score;
+            }
+        }
+        if (worst > 0) {
+            neighbours[worst] = to;
+        }
+    }
+
+    /**
+     * Best-first search of one layer, returning up to {@code ef} nodes ordered by decreasing similarity.
+     */
+    private Scored[] searchLayer(float[] query, int queryOffset, int entry, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        Scored start = new Scored(entry, SimilarityKernel.dot(query, queryOffset, vectors, entry * dimensions, dimensions));
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Scored current = candidates.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+            if (levels[current.node()] < level) {
+                continue;
+            }
+            int[] neighbours = links[current.node()][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = SimilarityKernel.dot(query, queryOffset, vectors, neighbour * dimensions, dimensions);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Scored scored = new Scored(neighbour, score);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        Scored[] ordered = results.toArray(new Scored[0]);
+        Arrays.sort(ordered, Comparator.comparingDouble(Scored::score).reversed());
+        return ordered;
+    }
+
+    private float similarity(int offset, int node) {
+        return SimilarityKernel.dot(vectors, offset, node * dimensions, dimensions);
+    }
+
+    private void normalize(int offset) {
+        float norm = (float) Math.sqrt(SimilarityKernel.dot(vectors, offset, offset, dimensions));
+        if (norm > 0f) {
+            for (int i = offset; i < offset + dimensions; i++) {
+                vectors[i] /= norm;
+            }
+        }
+    }
+
+    private float[] normalized(float[] query) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + query.length);
+        }
+        float[] copy = query.clone();
+        SimilarityKernel.normalizeRows(copy, 1, dimensions);
+        return copy;
+    }
+
+    private void allocate(int capacity) {
+        vectors = vectors == null ? new float[capacity * dimensions] : Arrays.copyOf(vectors, capacity * dimensions);
+        levels = levels == null ? new int[capacity] : Arrays.copyOf(levels, capacity);
+        links = links == null ? new int[capacity][][] : Arrays.copyOf(links, capacity);
+        ids = ids == null ? new String[capacity] : Arrays.copyOf(ids, capacity);
+        texts = texts == null ? new String[capacity] : Arrays.copyOf(texts, capacity);
+    }
+
+    /**
+     * Writes the whole index into a memory-mapped file, replacing the target atomically.
+     */
+    public void snapshot(Path file) throws IOException {
+        lock.readLock().lock();
+        try {
+            byte[][] idBytes = new byte[size][];
+            byte[][] textBytes = new byte[size][];
+            long bytes = 8L * Integer.BYTES + (long) size * dimensions * Float.BYTES + (long) size * (Integer.BYTES + 1);
+            for (int node = 0; node < size; node++) {
+                for (int[] layer : links[node]) {
+                    bytes += (long) layer.length * Integer.BYTES;
+                }
+                idBytes[node] = ids[node].getBytes(StandardCharsets.UTF_8);
+                textBytes[node] = texts[node] != null ? texts[node].getBytes(StandardCharsets.UTF_8) : null;
+                bytes += 2L * Integer.BYTES + idBytes[node].length + (textBytes[node] != null ? textBytes[node].length : 0);
+            }
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Index snapshot of " + bytes + " bytes exceeds the 2 GB mapping limit");
+            }
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                out.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(dimensions).putInt(m)
+                        .putInt(efConstruction).putInt(size).putInt(entryPoint).putInt(maxLevel);
+                out.asFloatBuffer().put(vectors, 0, size * dimensions);
+                out.position(out.position() + size * dimensions * Float.BYTES);
+                for (int node = 0; node < size; node++) {
+                    out.putInt(levels[node]);
+                    out.put((byte) (deleted.get(node) ? 1 : 0));
+                    for (int[] layer : links[node]) {
+                        out.asIntBuffer().put(layer);
+                        out.position(out.position() + layer.length * Integer.BYTES);
+                    }
+                    out.putInt(idBytes[node].length).put(idBytes[node]);
+                    out.putInt(textBytes[node] != null ? textBytes[node].length : -1);
+                    if (textBytes[node] != null) {
+                        out.put(textBytes[node]);
+                    }
+                }
+                out.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restores an index written by {@link #snapshot(Path)}.
+     */
+    public static HnswIndex load(Path file, int efSearch) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not an index snapshot: " + file);
+            }
+            int dimensions = in.getInt();
+            int m = in.getInt();
+            int efConstruction = in.getInt();
+            int size = in.getInt();
+
+            HnswIndex index = new HnswIndex(dimensions, m, efConstruction, efSearch);
+            index.allocate(Math.max(size, 1024));
+            index.size = size;
+            index.entryPoint = in.getInt();
+            index.maxLevel = in.getInt();
+            in.asFloatBuffer().get(index.vectors, 0, size * dimensions);
+            in.position(in.position() + size * dimensions * Float.BYTES);
+            for (int node = 0; node < size; node++) {
+                int level = in.getInt();
+                index.levels[node] = level;
+                if (in.get() == 1) {
+                    index.deleted.set(node);
+                }
+                index.links[node] = new int[level + 1][];
+                for (int l = 0; l <= level; l++) {
+                    int[] layer = new int[(l == 0 ? index.maxM0 : m) + 1];
+                    in.asIntBuffer().get(layer);
+                    in.position(in.position() + layer.length * Integer.BYTES);
+                    index.links[node][l] = layer;
+                }
+                byte[] id = new byte[in.getInt()];
+                in.get(id);
+                index.ids[node] = new String(id, StandardCharsets.UTF_8);
+                int textLength = in.getInt();
+                if (textLength >= 0) {
+                    byte[] text = new byte[textLength];
+                    in.get(text);
+                    index.texts[node] = new String(text, StandardCharsets.UTF_8);
+                }
+                if (!index.deleted.get(node)) {
+                    index.nodesById.put(index.ids[node], node);
+                }
+            }
+            return index;
+        }
+    }
+
+    private record Scored(int node, float score) {
+    }
+}
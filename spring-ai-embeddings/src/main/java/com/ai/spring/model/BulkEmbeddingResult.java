@@ -0,0 +1,12 @@
+package com.ai.spring.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One NDJSON output line of the bulk embedding endpoint. Either {@code embedding} or
+ * {@code error} is set.
+ * @author avinash
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkEmbeddingResult(String id, long line, float[] embedding, String error) {
+}
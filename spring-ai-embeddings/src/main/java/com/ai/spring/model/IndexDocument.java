@@ -0,0 +1,7 @@
+package com.ai.spring.model;
+
+/**
+ * @author avinash
+ */
+public record IndexDocument(String id, String text) {
+}
@@ -0,0 +1,7 @@
+package com.ai.spring.model;
+
+/**
+ * @author avinash
+ */
+public record SearchHit(String id, String text, double score) {
+}
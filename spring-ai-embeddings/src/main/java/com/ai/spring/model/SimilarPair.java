@@ -0,0 +1,7 @@
+package com.ai.spring.model;
+
+/**
+ * @author avinash
+ */
+public record SimilarPair(int first, int second, String firstMessage, String secondMessage, double score) {
+}
@@ -0,0 +1,9 @@
+package com.ai.spring.model;
+
+import java.util.List;
+
+/**
+ * @author avinash
+ */
+public record SimilarityMatrix(List<String> messages, String metric, float[][] scores) {
+}
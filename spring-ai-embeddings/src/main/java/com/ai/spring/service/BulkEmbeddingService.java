@@ -0,0 +1,159 @@
+package com.ai.spring.service;
+
+import com.ai.spring.model.BulkEmbeddingResult;
+import com.ai.spring.model.IndexDocument;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.mistralai.MistralAiEmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Embeds an NDJSON stream of documents with bounded memory.
+ * <p>
+ * Input lines are read incrementally and grouped into batches of {@code batchSize}. Up to
+ * {@code maxInFlight} batches are embedded concurrently while the next ones are read, and
+ * results are written back as NDJSON in input order as soon as the oldest batch completes.
+ * At most {@code batchSize * (maxInFlight + 1)} documents are held in memory at any time,
+ * regardless of the input size.
+ * @author avinash
+ */
+@Service
+public class BulkEmbeddingService {
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final MistralAiEmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public BulkEmbeddingService(MistralAiEmbeddingModel embeddingModel, ObjectMapper objectMapper,
+                                @Value("${ai.embedding.bulk.batch-size:64}") int batchSize,
+                                @Value("${ai.embedding.bulk.max-in-flight:4}") int maxInFlight) {
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Reads documents from {@code in} (one JSON object {@code {"id": ..., "text": ...}} or JSON
+     * string per line) and writes one {@link BulkEmbeddingResult} per document to {@code out}.
+     */
+    public void embed(InputStream in, OutputStream out) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Deque<Future<List<BulkEmbeddingResult>>> inFlight = new ArrayDeque<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                List<Line> batch = new ArrayList<>(batchSize);
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    batch.add(parse(line, lineNumber));
+                    if (batch.size() == batchSize) {
+                        List<Line> full = batch;
+                        inFlight.addLast(executor.submit(() -> embedBatch(full)));
+                        batch = new ArrayList<>(batchSize);
+                        if (inFlight.size() >= maxInFlight) {
+                            write(inFlight.pollFirst(), out);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    List<Line> last = batch;
+                    inFlight.addLast(executor.submit(() -> embedBatch(last)));
+                }
+                while (!inFlight.isEmpty()) {
+                    write(inFlight.pollFirst(), out);
+                }
+            } catch (IOException | RuntimeException e) {
+                // the client went away: stop embedding batches nobody will read
+                inFlight.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A line that cannot be read becomes an error result for that line; the rest of the
+     * stream is still embedded.
+     */
+    private Line parse(String line, long lineNumber) {
+        String fallbackId = String.valueOf(lineNumber);
+        try {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("\"")) {
+                return new Line(fallbackId, lineNumber, objectMapper.readValue(trimmed, String.class), null);
+            }
+            IndexDocument document = objectMapper.readValue(trimmed, IndexDocument.class);
+            String id = document != null && document.id() != null ? document.id() : fallbackId;
+            if (document == null || document.text() == null) {
+                return new Line(id, lineNumber, null, "Missing text");
+            }
+            return new Line(id, lineNumber, document.text(), null);
+        } catch (JsonProcessingException e) {
+            return new Line(fallbackId, lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private List<BulkEmbeddingResult> embedBatch(List<Line> batch) {
+        List<String> texts = batch.stream().filter(line -> line.error() == null).map(Line::text).toList();
+        List<BulkEmbeddingResult> results = new ArrayList<>(batch.size());
+        try {
+            EmbeddingResponse response = texts.isEmpty() ? null : embeddingModel.embedForResponse(texts);
+            int next = 0;
+            for (Line line : batch) {
+                results.add(line.error() != null
+                        ? new BulkEmbeddingResult(line.id(), line.number(), null, line.error())
+                        : new BulkEmbeddingResult(line.id(), line.number(), response.getResults().get(next++).getOutput(), null));
+            }
+        } catch (Exception e) {
+            results.clear();
+            for (Line line : batch) {
+                results.add(new BulkEmbeddingResult(line.id(), line.number(), null,
+                        line.error() != null ? line.error() : e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private void write(Future<List<BulkEmbeddingResult>> batch, OutputStream out) throws IOException {
+        List<BulkEmbeddingResult> results;
+        try {
+            results = batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while embedding", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Embedding batch failed", e.getCause());
+        }
+        for (BulkEmbeddingResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+    }
+
+    private record Line(String id, long number, String text, String error) {
+    }
+}
@@ -1,7 +1,19 @@
 package com.ai.spring.service;
 
+import com.ai.spring.batch.EmbeddingBatcher;
+import com.ai.spring.cache.EmbeddingCache;
+import com.ai.spring.model.SimilarPair;
+import com.ai.spring.model.SimilarityMatrix;
+import com.ai.spring.similarity.SimilarityEngine;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
 import org.springframework.ai.mistralai.MistralAiEmbeddingModel;
 import org.springframework.stereotype.Service;
 
@@ -12,13 +24,91 @@ import org.springframework.stereotype.Service;
 public class EmbeddingsService {
 
     private final MistralAiEmbeddingModel embeddingModel;
+    private final EmbeddingBatcher embeddingBatcher;
+    private final EmbeddingCache embeddingCache;
+    private final SimilarityEngine similarityEngine;
 
-    public EmbeddingsService(MistralAiEmbeddingModel embeddingModel) {
+    public EmbeddingsService(MistralAiEmbeddingModel embeddingModel, EmbeddingBatcher embeddingBatcher,
+                             EmbeddingCache embeddingCache, SimilarityEngine similarityEngine) {
         this.embeddingModel = embeddingModel;
+        this.embeddingBatcher = embeddingBatcher;
+        this.embeddingCache = embeddingCache;
+        this.similarityEngine = similarityEngine;
     }
 
+    /**
+     * Embeds a single text. Cached vectors are returned directly; concurrent misses are
+     * micro-batched into shared upstream requests.
+     */
+    public EmbeddingResponse embed(String message) {
+        float[] cached = embeddingCache.get(message);
+        if (cached != null) {
+            return new EmbeddingResponse(List.of(new Embedding(cached, 0)));
+        }
+        try {
+            EmbeddingResponse response = embeddingBatcher.submit(message).join();
+            embeddingCache.put(message, response.getResult().getOutput());
+            return response;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Embeds all messages, only sending the ones missing from the cache upstream (once each).
+     */
     public EmbeddingResponse similarity(List<String> messages) {
-        return this.embeddingModel
-                .embedForResponse(messages);
+        float[][] vectors = new float[messages.size()][];
+        Map<String, List<Integer>> missing = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            vectors[i] = embeddingCache.get(messages.get(i));
+            if (vectors[i] == null) {
+                missing.computeIfAbsent(messages.get(i), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+        if (!missing.isEmpty()) {
+            List<String> texts = new ArrayList<>(missing.keySet());
+            EmbeddingResponse response = this.embeddingModel.embedForResponse(texts);
+            metadata = response.getMetadata();
+            for (int j = 0; j < texts.size(); j++) {
+                float[] vector = response.getResults().get(j).getOutput();
+                embeddingCache.put(texts.get(j), vector);
+                for (int i : missing.get(texts.get(j))) {
+                    vectors[i] = vector;
+                }
+            }
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(vectors.length);
+        for (int i = 0; i < vectors.length; i++) {
+            embeddings.add(new Embedding(vectors[i], i));
+        }
+        return new EmbeddingResponse(embeddings, metadata);
+    }
+
+    /**
+     * Pairwise similarity of all messages, computed server side.
+     */
+    public SimilarityMatrix similarityMatrix(List<String> messages, SimilarityEngine.Metric metric) {
+        float[][] scores = similarityEngine.matrix(vectors(messages), metric);
+        return new SimilarityMatrix(messages, metric.name().toLowerCase(Locale.ROOT), scores);
+    }
+
+    /**
+     * The k most similar pairs among the messages, best first.
+     */
+    public List<SimilarPair> mostSimilar(List<String> messages, SimilarityEngine.Metric metric, int k) {
+        return similarityEngine.topK(messages, vectors(messages), metric, k);
+    }
+
+    private List<float[]> vectors(List<String> messages) {
+        return similarity(messages).getResults().stream()
+                .map(Embedding::getOutput)
+                .toList();
     }
 }
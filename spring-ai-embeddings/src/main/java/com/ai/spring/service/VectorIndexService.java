@@ -0,0 +1,90 @@
+package com.ai.spring.service;
+
+import com.ai.spring.index.HnswIndex;
+import com.ai.spring.model.IndexDocument;
+import com.ai.spring.model.SearchHit;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ingest, search and delete documents in the in-process vector index.
+ * @author avinash
+ */
+@Service
+public class VectorIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorIndexService.class);
+
+    private final EmbeddingsService embeddingsService;
+    private final HnswIndex index;
+    private final String snapshotPath;
+
+    public VectorIndexService(EmbeddingsService embeddingsService, HnswIndex index,
+                              @Value("${ai.index.snapshot-path:}") String snapshotPath) {
+        this.embeddingsService = embeddingsService;
+        this.index = index;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Embeds and indexes the documents in one upstream batch. Documents without an id get a random one.
+     */
+    public List<String> ingest(List<IndexDocument> documents) {
+        EmbeddingResponse response = embeddingsService.similarity(documents.stream().map(IndexDocument::text).toList());
+        List<String> ids = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            IndexDocument document = documents.get(i);
+            String id = document.id() != null ? document.id() : UUID.randomUUID().toString();
+            index.add(id, document.text(), response.getResults().get(i).getOutput());
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    public List<SearchHit> search(String query, int k) {
+        float[] vector = embeddingsService.embed(query).getResult().getOutput();
+        return index.search(vector, k);
+    }
+
+    public boolean delete(String id) {
+        return index.delete(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Writes the index to the configured snapshot file.
+     */
+    public Path snapshot() {
+        if (snapshotPath.isBlank()) {
+            throw new IllegalStateException("ai.index.snapshot-path is not configured");
+        }
+        Path file = Path.of(snapshotPath);
+        try {
+            index.snapshot(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write index snapshot to " + file, e);
+        }
+        logger.info("Wrote {} documents to index snapshot {}", index.size(), file);
+        return file;
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        if (!snapshotPath.isBlank()) {
+            snapshot();
+        }
+    }
+}
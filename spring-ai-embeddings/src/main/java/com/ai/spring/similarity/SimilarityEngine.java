@@ -0,0 +1,90 @@
+package com.ai.spring.similarity;
+
+import com.ai.spring.model.SimilarPair;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.springframework.stereotype.Service;
+
+/**
+ * Computes pairwise similarity between embedding vectors on the server, so clients receive a
+ * score matrix or the best matching pairs instead of the raw vectors.
+ * @author avinash
+ */
+@Service
+public class SimilarityEngine {
+
+    public enum Metric {
+        COSINE, DOT
+    }
+
+    /**
+     * Full symmetric n x n score matrix. Only the upper triangle is computed.
+     */
+    public float[][] matrix(List<float[]> vectors, Metric metric) {
+        int n = vectors.size();
+        int dimensions = dimensions(vectors);
+        float[] packed = pack(vectors, dimensions, metric);
+
+        float[][] scores = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            int a = i * dimensions;
+            scores[i][i] = SimilarityKernel.dot(packed, a, a, dimensions);
+            for (int j = i + 1; j < n; j++) {
+                float score = SimilarityKernel.dot(packed, a, j * dimensions, dimensions);
+                scores[i][j] = score;
+                scores[j][i] = score;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * The k most similar distinct pairs (i &lt; j), best first.
+     */
+    public List<SimilarPair> topK(List<String> messages, List<float[]> vectors, Metric metric, int k) {
+        int n = vectors.size();
+        int dimensions = dimensions(vectors);
+        float[] packed = pack(vectors, dimensions, metric);
+
+        PriorityQueue<SimilarPair> best = new PriorityQueue<>(Comparator.comparingDouble(SimilarPair::score));
+        for (int i = 0; i < n; i++) {
+            int a = i * dimensions;
+            for (int j = i + 1; j < n; j++) {
+                float score = SimilarityKernel.dot(packed, a, j * dimensions, dimensions);
+                if (best.size() < k) {
+                    best.add(new SimilarPair(i, j, messages.get(i), messages.get(j), score));
+                } else if (k > 0 && score > best.peek().score()) {
+                    best.poll();
+                    best.add(new SimilarPair(i, j, messages.get(i), messages.get(j), score));
+                }
+            }
+        }
+
+        List<SimilarPair> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(SimilarPair::score).reversed());
+        return result;
+    }
+
+    private static int dimensions(List<float[]> vectors) {
+        int dimensions = vectors.isEmpty() ? 0 : vectors.get(0).length;
+        for (float[] vector : vectors) {
+            if (vector.length != dimensions) {
+                throw new IllegalArgumentException("All vectors must have the same dimension");
+            }
+        }
+        return dimensions;
+    }
+
+    private static float[] pack(List<float[]> vectors, int dimensions, Metric metric) {
+        float[] packed = new float[vectors.size() * dimensions];
+        for (int i = 0; i < vectors.size(); i++) {
+            System.arraycopy(vectors.get(i), 0, packed, i * dimensions, dimensions);
+        }
+        if (metric == Metric.COSINE) {
+            SimilarityKernel.normalizeRows(packed, vectors.size(), dimensions);
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ai.spring.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+class EmbeddingBatcherTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingEmbeddingModel embeddingModel = new RecordingEmbeddingModel();
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheLinger() throws Exception {
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 4, Duration.ofSeconds(30), 1, TIMEOUT,
+                meterRegistry)) {
+            List<CompletableFuture<EmbeddingResponse>> futures = submit(batcher, "a", "b", "c", "d");
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            assertThat(embeddingModel.batches).containsExactly(List.of("a", "b", "c", "d"));
+            assertThat(meterRegistry.get("ai.embedding.batch.fill.ratio").summary().max()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    void partialBatchIsSentWhenTheLingerRunsOut() throws Exception {
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 100, Duration.ofMillis(200), 1, TIMEOUT,
+                meterRegistry)) {
+            long started = System.nanoTime();
+            List<CompletableFuture<EmbeddingResponse>> futures = submit(batcher, "a", "b");
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(150);
+            assertThat(embeddingModel.batches).containsExactly(List.of("a", "b"));
+            assertThat(meterRegistry.get("ai.embedding.batch.size").summary().totalAmount()).isEqualTo(2);
+            assertThat(meterRegistry.get("ai.embedding.batch.fill.ratio").summary().max()).isEqualTo(0.02);
+        }
+    }
+
+    @Test
+    void eachCallerGetsTheVectorOfItsOwnText() throws Exception {
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 3, Duration.ofSeconds(30), 1, TIMEOUT,
+                meterRegistry)) {
+            List<CompletableFuture<EmbeddingResponse>> futures = submit(batcher, "a", "bbb", "cc");
+
+            assertThat(futures.get(0).get(5, TimeUnit.SECONDS).getResult().getOutput()).containsExactly(1f);
+            assertThat(futures.get(1).get(5, TimeUnit.SECONDS).getResult().getOutput()).containsExactly(3f);
+            assertThat(futures.get(2).get(5, TimeUnit.SECONDS).getResult().getOutput()).containsExactly(2f);
+            assertThat(futures).allSatisfy(future -> assertThat(future.get().getResults()).hasSize(1));
+        }
+    }
+
+    @Test
+    void upstreamFailureFailsEveryCallerOfTheBatch() {
+        embeddingModel.failure = new IllegalStateException("rate limited");
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 3, Duration.ofSeconds(30), 1, TIMEOUT,
+                meterRegistry)) {
+            List<CompletableFuture<EmbeddingResponse>> futures = submit(batcher, "a", "b", "c");
+
+            assertThat(futures).allSatisfy(future -> assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseMessage("rate limited"));
+            assertThat(embeddingModel.batches).hasSize(1);
+        }
+    }
+
+    @Test
+    void closeFailsTheBatchStillBeingCollected() {
+        EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 100, Duration.ofSeconds(30), 1, TIMEOUT,
+                meterRegistry);
+        List<CompletableFuture<EmbeddingResponse>> futures = submit(batcher, "a", "b");
+
+        batcher.close();
+
+        assertThat(futures).allSatisfy(future -> assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .hasRootCauseMessage("Embedding batcher is shut down"));
+        assertThat(batcher.submit("c")).isCompletedExceptionally();
+        assertThat(embeddingModel.batches).isEmpty();
+    }
+
+    @Test
+    void closeFailsTheBatchWaitingForAFreeSlotAndFinishesTheOneInFlight() throws Exception {
+        embeddingModel.gate = new CountDownLatch(1);
+        EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 1, Duration.ZERO, 1, TIMEOUT, meterRegistry);
+        CompletableFuture<EmbeddingResponse> sent = batcher.submit("a");
+        await(() -> embeddingModel.batches.size() == 1);
+        CompletableFuture<EmbeddingResponse> held = batcher.submit("b");
+
+        Thread closing = Thread.ofVirtual().start(batcher::close);
+
+        assertThatThrownBy(() -> held.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Embedding batcher is shut down");
+        embeddingModel.gate.countDown();
+        closing.join(5_000);
+        assertThat(closing.isAlive()).isFalse();
+        assertThat(sent.get(5, TimeUnit.SECONDS).getResult().getOutput()).containsExactly(1f);
+        assertThat(embeddingModel.batches).containsExactly(List.of("a"));
+    }
+
+    @Test
+    void callerStopsWaitingAfterTheTimeout() {
+        embeddingModel.gate = new CountDownLatch(1);
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(embeddingModel, 1, Duration.ZERO, 1,
+                Duration.ofMillis(200), meterRegistry)) {
+            assertThatThrownBy(() -> batcher.submit("a").get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(TimeoutException.class);
+            embeddingModel.gate.countDown();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static List<CompletableFuture<EmbeddingResponse>> submit(EmbeddingBatcher batcher, String... texts) {
+        List<CompletableFuture<EmbeddingResponse>> futures = new ArrayList<>();
+        for (String text : texts) {
+            futures.add(batcher.submit(text));
+        }
+        return futures;
+    }
+
+    /**
+     * Embeds each text as the one-dimensional vector of its length and records every batch.
+     * While {@code gate} is set, each call waits for it to open.
+     */
+    static class RecordingEmbeddingModel implements EmbeddingModel {
+
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        volatile RuntimeException failure;
+        volatile CountDownLatch gate;
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            batches.add(List.copyOf(request.getInstructions()));
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(new float[] {request.getInstructions().get(i).length()}, i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
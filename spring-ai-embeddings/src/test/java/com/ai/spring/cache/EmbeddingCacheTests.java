@@ -0,0 +1,79 @@
+package com.ai.spring.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmbeddingCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void vectorsRoundTripAsCopies() {
+        try (EmbeddingCache cache = new EmbeddingCache("model", 3, 10, null, meterRegistry)) {
+            cache.put("hello", new float[] {1, 2, 3});
+            cache.put("wrong size", new float[] {1, 2});
+
+            float[] vector = cache.get("hello");
+            vector[0] = 42;
+
+            assertThat(cache.get("hello")).containsExactly(1, 2, 3);
+            assertThat(cache.get("wrong size")).isNull();
+            assertThat(cache.get("unknown")).isNull();
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        try (EmbeddingCache cache = new EmbeddingCache("model", 2, 2, null, meterRegistry)) {
+            cache.put("a", new float[] {1, 1});
+            cache.put("b", new float[] {2, 2});
+            cache.get("a");
+
+            cache.put("c", new float[] {3, 3});
+
+            assertThat(cache.get("b")).isNull();
+            assertThat(cache.get("a")).containsExactly(1, 1);
+            assertThat(cache.get("c")).containsExactly(3, 3);
+            assertThat(cache.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void cleanShutdownSurvivesARestart() {
+        try (EmbeddingCache cache = new EmbeddingCache("model", 2, 10, directory, meterRegistry)) {
+            cache.put("a", new float[] {1, 2});
+        }
+
+        try (EmbeddingCache restarted = new EmbeddingCache("model", 2, 10, directory, meterRegistry)) {
+            assertThat(restarted.get("a")).containsExactly(1, 2);
+        }
+        try (EmbeddingCache otherModel = new EmbeddingCache("other-model", 2, 10, directory, meterRegistry)) {
+            assertThat(otherModel.get("a")).isNull();
+        }
+    }
+
+    @Test
+    void crashAfterARestartDoesNotServeOverwrittenSlots() {
+        try (EmbeddingCache cache = new EmbeddingCache("model", 2, 1, directory, meterRegistry)) {
+            cache.put("a", new float[] {1, 1});
+        }
+
+        // restart, then "b" evicts "a" and takes its slot before the process is killed without close()
+        EmbeddingCache crashed = new EmbeddingCache("model", 2, 1, directory, meterRegistry);
+        assertThat(crashed.get("a")).containsExactly(1, 1);
+        crashed.put("b", new float[] {2, 2});
+
+        try (EmbeddingCache restarted = new EmbeddingCache("model", 2, 1, directory, meterRegistry)) {
+            assertThat(restarted.get("a")).isNull();
+            assertThat(restarted.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ai.spring.index;
+
+import com.ai.spring.model.SearchHit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Recall@k and queries per second of {@link HnswIndex#search} against exact
+ * {@link HnswIndex#bruteForce} over the same random corpus.
+ * <p>
+ * Not part of the test run; start it from the test classpath:
+ * <pre>
+ * java ... com.ai.spring.index.HnswBenchmark 384 100000 1000 10 128
+ * </pre>
+ * Arguments: dimensions, documents, queries, k, efSearch. Both searches are warmed up on the
+ * query set before they are timed.
+ * @author avinash
+ */
+public class HnswBenchmark {
+
+    public static void main(String[] args) {
+        int dimensions = args.length > 0 ? Integer.parseInt(args[0]) : 384;
+        int documents = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int queryCount = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int k = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int efSearch = args.length > 4 ? Integer.parseInt(args[4]) : 128;
+
+        Random random = new Random(42);
+        HnswIndex index = new HnswIndex(dimensions, 16, 200, efSearch);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            index.add("doc-" + i, "text " + i, randomVector(random, dimensions));
+        }
+        double buildSeconds = (System.nanoTime() - buildStart) / 1e9;
+        float[][] queries = new float[queryCount][];
+        for (int i = 0; i < queryCount; i++) {
+            queries[i] = randomVector(random, dimensions);
+        }
+
+        double recall = 0;
+        for (float[] query : queries) {
+            Set<String> expected = ids(index.bruteForce(query, k));
+            expected.retainAll(ids(index.search(query, k)));
+            recall += (double) expected.size() / k;
+        }
+        recall /= queryCount;
+
+        double hnswQps = queriesPerSecond(queries, query -> index.search(query, k));
+        double bruteForceQps = queriesPerSecond(queries, query -> index.bruteForce(query, k));
+
+        System.out.printf("documents=%d dimensions=%d queries=%d k=%d efSearch=%d build=%.1f s%n",
+                documents, dimensions, queryCount, k, efSearch, buildSeconds);
+        System.out.printf("recall@%d=%.4f%n", k, recall);
+        System.out.printf("hnsw=%.0f qps bruteForce=%.0f qps speedup=%.1fx%n",
+                hnswQps, bruteForceQps, hnswQps / bruteForceQps);
+    }
+
+    private static double queriesPerSecond(float[][] queries, Search search) {
+        long hits = 0;
+        for (float[] query : queries) {
+            hits += search.run(query).size();
+        }
+        long start = System.nanoTime();
+        for (float[] query : queries) {
+            hits += search.run(query).size();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (hits < 0) {
+            throw new IllegalStateException();
+        }
+        return queries.length / seconds;
+    }
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static Set<String> ids(List<SearchHit> hits) {
+        Set<String> ids = new HashSet<>();
+        hits.forEach(hit -> ids.add(hit.id()));
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Search {
+        List<SearchHit> run(float[] query);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ai.spring.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ai.spring.model.SearchHit;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Recall@k of the HNSW index against exact brute-force search, and its behaviour under deletes.
+ * Throughput is measured by {@link HnswBenchmark}, outside the test run.
+ */
+class HnswIndexTests {
+
+    private static final int DIMENSIONS = 64;
+    private static final int DOCUMENTS = 5_000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+
+    private final Random random = new Random(7);
+    private HnswIndex index;
+    private float[][] queries;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new HnswIndex(DIMENSIONS, 16, 200, 128);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            index.add("doc-" + i, "text " + i, randomVector());
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = randomVector();
+        }
+    }
+
+    @Test
+    void recallAgainstBruteForce() {
+        assertThat(recall()).isGreaterThan(0.95);
+    }
+
+    @Test
+    void deletedDocumentsAreNotReturned() {
+        float[] query = randomVector();
+        String best = index.search(query, 1).get(0).id();
+
+        assertThat(index.delete(best)).isTrue();
+
+        assertThat(ids(index.search(query, K))).doesNotContain(best);
+        assertThat(index.size()).isEqualTo(DOCUMENTS - 1);
+    }
+
+    @Test
+    void searchStillFindsKLiveDocumentsAfterHeavyDeletes() {
+        // below the compaction threshold, so the tombstones stay in the graph
+        for (int i = 0; i < DOCUMENTS / 5; i++) {
+            index.delete("doc-" + i);
+        }
+
+        assertThat(index.nodes()).isEqualTo(DOCUMENTS);
+        for (float[] query : queries) {
+            assertThat(index.search(query, K)).hasSize(K);
+        }
+        assertThat(recall()).isGreaterThan(0.95);
+    }
+
+    @Test
+    void updatesAndDeletesDoNotGrowTheGraph() {
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                index.add("doc-" + i, "text " + i + " v" + round, randomVector());
+            }
+        }
+        assertThat(index.size()).isEqualTo(DOCUMENTS);
+        assertThat(index.nodes()).isLessThanOrEqualTo(DOCUMENTS * 4 / 3 + 1);
+
+        for (int i = 0; i < DOCUMENTS / 2; i++) {
+            index.delete("doc-" + i);
+        }
+        assertThat(index.size()).isEqualTo(DOCUMENTS / 2);
+        assertThat(index.nodes()).isLessThanOrEqualTo(DOCUMENTS / 2 * 4 / 3 + 1);
+        assertThat(index.search(queries[0], K)).hasSize(K)
+                .allSatisfy(hit -> assertThat(hit.text()).endsWith("v1"));
+        assertThat(recall()).isGreaterThan(0.9);
+    }
+
+    @Test
+    void snapshotRoundTrip(@TempDir Path directory) throws Exception {
+        index.delete("doc-0");
+        Path file = directory.resolve("index.snapshot");
+        index.snapshot(file);
+
+        HnswIndex restored = HnswIndex.load(file, 128);
+
+        assertThat(restored.size()).isEqualTo(index.size());
+        for (float[] query : List.of(queries[0], queries[1], queries[2])) {
+            assertThat(restored.search(query, K)).isEqualTo(index.search(query, K));
+        }
+    }
+
+    private double recall() {
+        double recall = 0;
+        for (float[] query : queries) {
+            Set<String> expected = ids(index.bruteForce(query, K));
+            expected.retainAll(ids(index.search(query, K)));
+            recall += (double) expected.size() / K;
+        }
+        return recall / QUERIES;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static Set<String> ids(List<SearchHit> hits) {
+        Set<String> ids = new HashSet<>();
+        hits.forEach(hit -> ids.add(hit.id()));
+        return ids;
+    }
+}
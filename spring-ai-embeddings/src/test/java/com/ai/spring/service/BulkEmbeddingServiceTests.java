@@ -0,0 +1,67 @@
+package com.ai.spring.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ai.spring.model.BulkEmbeddingResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.mistralai.MistralAiEmbeddingModel;
+
+class BulkEmbeddingServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void malformedLineBecomesAnErrorLineAndTheStreamContinues() throws Exception {
+        MistralAiEmbeddingModel embeddingModel = mock(MistralAiEmbeddingModel.class);
+        // each text is embedded as the one-dimensional vector of its length
+        when(embeddingModel.embedForResponse(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < texts.size(); i++) {
+                embeddings.add(new Embedding(new float[] {texts.get(i).length()}, i));
+            }
+            return new EmbeddingResponse(embeddings);
+        });
+        BulkEmbeddingService service = new BulkEmbeddingService(embeddingModel, objectMapper, 2, 1);
+        String input = String.join("\n",
+                "{\"id\": \"a\", \"text\": \"one\"}",
+                "{\"id\": \"b\", \"text\": ",
+                "\"three\"",
+                "{\"id\": \"d\"}",
+                "{\"id\": \"e\", \"text\": \"fifth\"}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.embed(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<BulkEmbeddingResult> results = out.toString(StandardCharsets.UTF_8).lines()
+                .map(this::read)
+                .toList();
+        assertThat(results).extracting(BulkEmbeddingResult::line).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(results).extracting(BulkEmbeddingResult::id).containsExactly("a", "2", "3", "d", "e");
+        assertThat(results.get(0).embedding()).containsExactly(3f);
+        assertThat(results.get(1).error()).startsWith("Invalid JSON");
+        assertThat(results.get(1).embedding()).isNull();
+        assertThat(results.get(2).embedding()).containsExactly(5f);
+        assertThat(results.get(3).error()).isEqualTo("Missing text");
+        assertThat(results.get(4).embedding()).containsExactly(5f);
+    }
+
+    private BulkEmbeddingResult read(String line) {
+        try {
+            return objectMapper.readValue(line, BulkEmbeddingResult.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ai.spring.similarity;
+
+import java.util.Random;
+
+/**
+ * Throughput of the unrolled {@link SimilarityKernel#dot} against the plain
+ * {@link SimilarityKernel#dotScalar} loop, scanning one query against every row of a packed
+ * matrix the way brute-force search does.
+ * <p>
+ * Not part of the test run; start it from the test classpath:
+ * <pre>
+ * java ... com.ai.spring.similarity.SimilarityKernelBenchmark 1536 20000 20
+ * </pre>
+ * Arguments: dimensions, rows, measured rounds. Each kernel is warmed up for as many rounds
+ * first, and the rounds alternate between the kernels so that neither profits from running last.
+ * @author avinash
+ */
+public class SimilarityKernelBenchmark {
+
+    public static void main(String[] args) {
+        int dimensions = args.length > 0 ? Integer.parseInt(args[0]) : 1536;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Random random = new Random(42);
+        // row 0 is the query, the others the corpus
+        float[] data = new float[(rows + 1) * dimensions];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (float) random.nextGaussian();
+        }
+
+        double sink = 0;
+        for (int round = 0; round < rounds; round++) {
+            sink += scan(data, rows, dimensions, false) + scan(data, rows, dimensions, true);
+        }
+        long unrolledNanos = 0;
+        long scalarNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            sink += scan(data, rows, dimensions, false);
+            unrolledNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            sink += scan(data, rows, dimensions, true);
+            scalarNanos += System.nanoTime() - start;
+        }
+
+        double operations = (double) rows * rounds;
+        System.out.printf("dimensions=%d rows=%d rounds=%d (checksum %.1f)%n", dimensions, rows, rounds, sink);
+        System.out.printf("dot=%.1f ns/op dotScalar=%.1f ns/op speedup=%.2fx%n",
+                unrolledNanos / operations, scalarNanos / operations, (double) scalarNanos / unrolledNanos);
+    }
+
+    private static double scan(float[] data, int rows, int dimensions, boolean scalar) {
+        double sum = 0;
+        for (int row = 1; row <= rows; row++) {
+            sum += scalar
+                    ? SimilarityKernel.dotScalar(data, 0, row * dimensions, dimensions)
+                    : SimilarityKernel.dot(data, 0, row * dimensions, dimensions);
+        }
+        return sum;
+    }
+}
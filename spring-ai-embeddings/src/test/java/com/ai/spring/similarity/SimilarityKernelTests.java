@@ -0,0 +1,59 @@
+package com.ai.spring.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimilarityKernelTests {
+
+    private final Random random = new Random(11);
+
+    @Test
+    void unrolledDotMatchesTheScalarLoopForEveryTailLength() {
+        for (int length : new int[] {0, 1, 3, 7, 8, 9, 15, 16, 17, 31, 1023, 1024, 1025}) {
+            // two rows with an odd offset between them, so no row starts on a multiple of 8
+            float[] data = randomVector(2 * length + 3);
+            int aOffset = 1;
+            int bOffset = length + 3;
+
+            float expected = SimilarityKernel.dotScalar(data, aOffset, bOffset, length);
+            float tolerance = 1e-5f * Math.max(1f, length);
+
+            assertThat(SimilarityKernel.dot(data, aOffset, bOffset, length))
+                    .as("length %d", length)
+                    .isCloseTo(expected, within(tolerance));
+            float[] copy = new float[length];
+            System.arraycopy(data, bOffset, copy, 0, length);
+            assertThat(SimilarityKernel.dot(data, aOffset, copy, 0, length))
+                    .as("length %d across arrays", length)
+                    .isCloseTo(expected, within(tolerance));
+        }
+    }
+
+    @Test
+    void normalizedRowsHaveUnitLength() {
+        int rows = 3;
+        int dimensions = 13;
+        float[] data = randomVector(rows * dimensions);
+        for (int i = 2 * dimensions; i < rows * dimensions; i++) {
+            data[i] = 0f;
+        }
+
+        SimilarityKernel.normalizeRows(data, rows, dimensions);
+
+        assertThat(SimilarityKernel.dot(data, 0, 0, dimensions)).isCloseTo(1f, within(1e-5f));
+        assertThat(SimilarityKernel.dot(data, dimensions, dimensions, dimensions)).isCloseTo(1f, within(1e-5f));
+        // a zero row stays zero instead of turning into NaNs
+        assertThat(SimilarityKernel.dot(data, 2 * dimensions, 2 * dimensions, dimensions)).isZero();
+    }
+
+    private float[] randomVector(int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,316 @@
+package com.ai.springaitool.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache for the results of one tool, keyed on its normalized arguments.
+ * <p>
+ * Successful results are fresh for {@code ttl}. For a further {@code staleWhileRevalidate} they
+ * are still returned immediately while a background refresh fetches a new value; a failed
+ * refresh keeps the stale value and is not retried for {@code negativeTtl}. Failures are cached
+ * for {@code negativeTtl}, so a broken upstream is not hammered by an agent retrying the same
+ * question. Transient failures, such as a call rejected locally by an open circuit or a full
+ * bulkhead, are returned but never cached: they say nothing about the key, and the next call
+ * should reach the upstream once it recovers. Concurrent misses for the same key share one load.
+ * The number of entries is bounded (LRU).
+ * <p>
+ * {@link #prefetch} loads a key ahead of the call that is expected to need it. Whether that call
+ * came is counted as {@code ai.tool.prefetch{tool,outcome=used|wasted}}.
+ * @author avinash
+ */
+@Slf4j
+public class ToolResultCache {
+
+    private final String tool;
+    private final Duration ttl;
+    private final Duration staleWhileRevalidate;
+    private final Duration negativeTtl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Result>> loading = new ConcurrentHashMap<>();
+    private final Map<String, Prefetch> prefetched = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter failedRefreshes;
+    private final Counter prefetchesIssued;
+    private final Counter prefetchesUsed;
+    private final Counter prefetchesWasted;
+
+    public ToolResultCache(String tool, Duration ttl, Duration staleWhileRevalidate, Duration negativeTtl,
+                           int maxEntries, MeterRegistry meterRegistry) {
+        this(tool, ttl, staleWhileRevalidate, negativeTtl, maxEntries, meterRegistry,
+                Clock.systemUTC(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ToolResultCache(String tool, Duration ttl, Duration staleWhileRevalidate, Duration negativeTtl, int maxEntries,
+                    MeterRegistry meterRegistry, Clock clock, Executor refreshExecutor) {
+        this.tool = tool;
+        this.ttl = ttl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ToolResultCache.this.maxEntries;
+            }
+        };
+        this.hits = counter(meterRegistry, "hit");
+        this.staleHits = counter(meterRegistry, "stale");
+        this.negativeHits = counter(meterRegistry, "negative");
+        this.misses = counter(meterRegistry, "miss");
+        this.failedRefreshes = Counter.builder("ai.tool.cache.refresh.failures")
+                .tag("tool", tool)
+                .register(meterRegistry);
+        this.prefetchesIssued = prefetchCounter(meterRegistry, "issued");
+        this.prefetchesUsed = prefetchCounter(meterRegistry, "used");
+        this.prefetchesWasted = prefetchCounter(meterRegistry, "wasted");
+        Gauge.builder("ai.tool.cache.size", this, ToolResultCache::size)
+                .tag("tool", tool)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lower-cases the arguments and collapses whitespace, so that "New  York" and "new york"
+     * share an entry.
+     */
+    public static String normalize(String arguments) {
+        return arguments == null ? "" : arguments.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public Result get(String key, Supplier<Result> loader) {
+        if (!prefetched.isEmpty() && prefetched.remove(key) != null) {
+            prefetchesUsed.increment();
+        }
+        Entry entry = lookup(key);
+        long now = clock.millis();
+        if (entry != null && now < entry.freshUntil()) {
+            (entry.result().failed() ? negativeHits : hits).increment();
+            return entry.result();
+        }
+        if (entry != null && now < entry.staleUntil()) {
+            staleHits.increment();
+            if (now >= entry.refreshAfter()) {
+                refresh(key, loader);
+            }
+            return entry.result();
+        }
+        misses.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * Starts loading the key in the background so that a later {@link #get} finds it cached, or
+     * joins the load if it is still running.
+     *
+     * @return the prefetch, or null if the key is already cached or loading
+     */
+    public Prefetch prefetch(String key, Supplier<Result> loader) {
+        if (lookup(key) != null) {
+            return null;
+        }
+        CompletableFuture<Result> own = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, own) != null) {
+            return null;
+        }
+        Prefetch prefetch = new Prefetch(key, own);
+        prefetched.put(key, prefetch);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Result result = invoke(loader);
+                    store(key, result);
+                    own.complete(result);
+                } finally {
+                    loading.remove(key, own);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            prefetched.remove(key, prefetch);
+            loading.remove(key, own);
+            own.complete(Result.transientFailure("Prefetch rejected"));
+            return null;
+        }
+        prefetchesIssued.increment();
+        return prefetch;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Result load(String key, Supplier<Result> loader) {
+        CompletableFuture<Result> own = new CompletableFuture<>();
+        CompletableFuture<Result> existing = loading.putIfAbsent(key, own);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            Result result = invoke(loader);
+            store(key, result);
+            own.complete(result);
+            return result;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    private void refresh(String key, Supplier<Result> loader) {
+        CompletableFuture<Result> own = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, own) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Result result = invoke(loader);
+                    if (result.failed()) {
+                        // keep serving the stale value until it runs out
+                        failedRefreshes.increment();
+                        if (result.cacheable()) {
+                            backOff(key);
+                        }
+                        log.debug("Refreshing {} result for '{}' failed: {}", tool, key, result.text());
+                    } else {
+                        store(key, result);
+                    }
+                    own.complete(result);
+                } finally {
+                    loading.remove(key, own);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, own);
+        }
+    }
+
+    private Result invoke(Supplier<Result> loader) {
+        try {
+            Result result = loader.get();
+            return result != null ? result : Result.failure("No result from " + tool);
+        } catch (RuntimeException e) {
+            return Result.failure(e.getMessage());
+        }
+    }
+
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.staleUntil() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(String key, Result result) {
+        if (!result.cacheable()) {
+            return;
+        }
+        long now = clock.millis();
+        if (result.failed()) {
+            long until = now + negativeTtl.toMillis();
+            entries.put(key, new Entry(result, until, until, until));
+        } else {
+            long freshUntil = now + ttl.toMillis();
+            entries.put(key, new Entry(result, freshUntil, freshUntil + staleWhileRevalidate.toMillis(), freshUntil));
+        }
+    }
+
+    private synchronized void backOff(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entries.put(key, new Entry(entry.result(), entry.freshUntil(), entry.staleUntil(),
+                    clock.millis() + negativeTtl.toMillis()));
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.tool.cache.requests")
+                .tag("tool", tool)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter prefetchCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.tool.prefetch")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A background load started by {@link #prefetch}.
+     */
+    public final class Prefetch {
+
+        private final String key;
+        private final CompletableFuture<Result> result;
+
+        private Prefetch(String key, CompletableFuture<Result> result) {
+            this.key = key;
+            this.result = result;
+        }
+
+        public CompletableFuture<Result> result() {
+            return result;
+        }
+
+        /**
+         * Call once the request the prefetch was made for is over: a prefetch no call has used
+         * by then is counted as wasted.
+         *
+         * @return whether a call used the prefetched key
+         */
+        public boolean settle() {
+            if (prefetched.remove(key, this)) {
+                prefetchesWasted.increment();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What a tool returns to the model: either its output or a failure message.
+     */
+    public record Result(String text, boolean failed, boolean cacheable) {
+
+        public static Result success(String text) {
+            return new Result(text, false, true);
+        }
+
+        public static Result failure(String text) {
+            return new Result(text, true, true);
+        }
+
+        /**
+         * A failure that must not be negatively cached, because it did not come from the upstream.
+         */
+        public static Result transientFailure(String text) {
+            return new Result(text, true, false);
+        }
+    }
+
+    private record Entry(Result result, long freshUntil, long staleUntil, long refreshAfter) {
+    }
+}
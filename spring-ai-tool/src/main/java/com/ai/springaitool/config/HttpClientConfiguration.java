@@ -0,0 +1,61 @@
+package com.ai.springaitool.config;
+
+import com.ai.springaitool.http.HostPolicy;
+import com.ai.springaitool.http.OutboundGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Shared {@link HttpClient} and {@link OutboundGateway} for the agent tools.
+ * When virtual threads are enabled, the client's internal work also runs on virtual threads
+ * so that outbound calls never tie up platform threads.
+ * <p>
+ * Host limits default to {@code ai.tools.gateway.*} and can be overridden per host, e.g.
+ * {@code ai.tools.gateway.hosts[wttr.in].timeout=3s}.
+ * @author avinash
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    private static final String GATEWAY = "ai.tools.gateway.";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${ai.tools.gateway.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Bean
+    public HttpClient httpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (virtualThreads) {
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public OutboundGateway outboundGateway(HttpClient httpClient, Environment environment, MeterRegistry meterRegistry) {
+        return new OutboundGateway(httpClient, host -> new HostPolicy(
+                property(environment, host, "timeout", Duration.class, Duration.ofSeconds(5)),
+                property(environment, host, "max-concurrent", Integer.class, 32),
+                property(environment, host, "acquire-timeout", Duration.class, Duration.ofMillis(100)),
+                property(environment, host, "failure-threshold", Integer.class, 5),
+                property(environment, host, "open-duration", Duration.class, Duration.ofSeconds(30))),
+                meterRegistry);
+    }
+
+    private static <T> T property(Environment environment, String host, String name, Class<T> type, T fallback) {
+        T defaultValue = environment.getProperty(GATEWAY + name, type, fallback);
+        return environment.getProperty(GATEWAY + "hosts[" + host + "]." + name, type, defaultValue);
+    }
+}
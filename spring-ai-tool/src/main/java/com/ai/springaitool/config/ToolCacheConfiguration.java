@@ -0,0 +1,53 @@
+package com.ai.springaitool.config;
+
+import com.ai.springaitool.cache.ToolResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Result caches for the agent tools. Weather changes by the minute, Wikipedia summaries hardly
+ * change in a day, so each tool has its own TTLs.
+ * @author avinash
+ */
+@Configuration
+public class ToolCacheConfiguration {
+
+    @Value("${ai.tools.cache.weather.ttl:PT5M}")
+    private Duration weatherTtl;
+
+    @Value("${ai.tools.cache.weather.stale-while-revalidate:PT10M}")
+    private Duration weatherStale;
+
+    @Value("${ai.tools.cache.weather.negative-ttl:PT30S}")
+    private Duration weatherNegativeTtl;
+
+    @Value("${ai.tools.cache.weather.max-entries:1000}")
+    private int weatherMaxEntries;
+
+    @Value("${ai.tools.cache.wikipedia.ttl:PT24H}")
+    private Duration wikipediaTtl;
+
+    @Value("${ai.tools.cache.wikipedia.stale-while-revalidate:PT24H}")
+    private Duration wikipediaStale;
+
+    @Value("${ai.tools.cache.wikipedia.negative-ttl:PT10M}")
+    private Duration wikipediaNegativeTtl;
+
+    @Value("${ai.tools.cache.wikipedia.max-entries:5000}")
+    private int wikipediaMaxEntries;
+
+    @Bean
+    public ToolResultCache weatherToolCache(MeterRegistry meterRegistry) {
+        return new ToolResultCache("getWeather", weatherTtl, weatherStale, weatherNegativeTtl,
+                weatherMaxEntries, meterRegistry);
+    }
+
+    @Bean
+    public ToolResultCache wikipediaToolCache(MeterRegistry meterRegistry) {
+        return new ToolResultCache("wikipedia", wikipediaTtl, wikipediaStale, wikipediaNegativeTtl,
+                wikipediaMaxEntries, meterRegistry);
+    }
+}
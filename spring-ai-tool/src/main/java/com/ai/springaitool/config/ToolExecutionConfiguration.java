@@ -0,0 +1,31 @@
+package com.ai.springaitool.config;
+
+import com.ai.springaitool.tools.ParallelToolCallingManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Spring AI's tool execution with {@link ParallelToolCallingManager}, which the chat model
+ * then uses for every tool-calling turn. Set {@code ai.agent.tools.parallel=false} to run the calls
+ * of a turn one after the other; tool progress is still reported to the agent either way.
+ * @author avinash
+ */
+@Configuration
+public class ToolExecutionConfiguration {
+
+    @Value("${ai.agent.tools.turn-deadline:PT20S}")
+    private Duration turnDeadline;
+
+    @Value("${ai.agent.tools.parallel:true}")
+    private boolean parallel;
+
+    @Bean
+    public ToolCallingManager toolCallingManager(ToolCallbackResolver toolCallbackResolver, MeterRegistry meterRegistry) {
+        return new ParallelToolCallingManager(toolCallbackResolver, turnDeadline, parallel, meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ai.springaitool.config;
+
+import com.ai.springaitool.tools.output.ToolOutputCompactor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Token budgets for what each agent tool hands back to the model.
+ * @author avinash
+ */
+@Configuration
+public class ToolOutputConfiguration {
+
+    @Value("${ai.tools.output.weather.max-tokens:120}")
+    private int weatherMaxTokens;
+
+    @Value("${ai.tools.output.wikipedia.max-tokens:300}")
+    private int wikipediaMaxTokens;
+
+    private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+    @Bean
+    public ToolOutputCompactor weatherToolOutput(MeterRegistry meterRegistry) {
+        return new ToolOutputCompactor("getWeather", weatherMaxTokens, tokenCountEstimator, meterRegistry);
+    }
+
+    @Bean
+    public ToolOutputCompactor wikipediaToolOutput(MeterRegistry meterRegistry) {
+        return new ToolOutputCompactor("wikipedia", wikipediaMaxTokens, tokenCountEstimator, meterRegistry);
+    }
+}
@@ -1,10 +1,14 @@
 package com.ai.springaitool.controller;
 
+import com.ai.springaitool.model.AgentEvent;
 import com.ai.springaitool.model.ChatRequest;
 import com.ai.springaitool.model.ChatResponse;
 import com.ai.springaitool.service.AIAgentService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 /**
  * REST API Controller for AI Agent with tool calling capabilities
@@ -42,6 +46,24 @@ public class AIAgentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streaming chat endpoint - emits {@code tool-started}, {@code tool-finished}, {@code token}
+     * and a final {@code answer} (or {@code error}) server-sent event as the agent works
+     *
+     * @param request Chat request with a user message
+     * @return Event stream of the agent's progress
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<AgentEvent>>> chatStream(@RequestBody ChatRequest request) {
+        if (request.message() == null || request.message().trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Flux<ServerSentEvent<AgentEvent>> events = aiAgentService.stream(request.message())
+                .map(event -> ServerSentEvent.builder(event).event(event.name()).build());
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events);
+    }
+
     /**
      * Direct weather endpoint - bypasses AI and calls weather tool directly
      * 
@@ -0,0 +1,71 @@
+package com.ai.springaitool.http;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and rejects calls for {@code openDuration}; then a single probe is let through, which
+ * closes the circuit on success or opens it again on failure.
+ * @author avinash
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probing) {
+                return false;
+            }
+            probing = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probing = false;
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            failures = 0;
+            probing = false;
+        }
+    }
+
+    /**
+     * Gives back a permission that did not result in a call.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
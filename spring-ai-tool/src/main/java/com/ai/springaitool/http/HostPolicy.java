@@ -0,0 +1,17 @@
+package com.ai.springaitool.http;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to calls to one host.
+ *
+ * @param timeout          time budget for one request, from sending it to the full response body
+ * @param maxConcurrent    bulkhead size: calls in flight to the host at once
+ * @param acquireTimeout   how long a call may wait for a bulkhead slot before it is rejected
+ * @param failureThreshold consecutive failures (I/O errors, timeouts, 5xx) that open the circuit
+ * @param openDuration     how long an open circuit rejects calls before letting one probe through
+ * @author avinash
+ */
+public record HostPolicy(Duration timeout, int maxConcurrent, Duration acquireTimeout, int failureThreshold,
+                         Duration openDuration) {
+}
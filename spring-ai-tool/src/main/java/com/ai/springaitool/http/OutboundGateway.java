@@ -0,0 +1,144 @@
+package com.ai.springaitool.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Single way out to the network for the agent tools.
+ * <p>
+ * All calls share one {@link HttpClient}, so connections (HTTP/2 where the server offers it) are
+ * pooled and reused across tool invocations. Per host, every call gets a time budget that covers
+ * the whole exchange, body included, passes a
+ * bulkhead that caps the calls in flight, and goes through a {@link CircuitBreaker}. A call that
+ * would wait on a dead or saturated host fails immediately with an
+ * {@link OutboundRejectedException}, which the tools turn into an error answer that is not
+ * cached.
+ * Latency is recorded per host and outcome as {@code ai.tools.http.requests}.
+ * @author avinash
+ */
+public class OutboundGateway {
+
+    private final HttpClient httpClient;
+    private final Function<String, HostPolicy> policies;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    public OutboundGateway(HttpClient httpClient, Function<String, HostPolicy> policies, MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.policies = policies;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        String hostName = request.uri().getHost();
+        Host host = hosts.computeIfAbsent(hostName, this::host);
+        if (!host.breaker.tryAcquire()) {
+            record(hostName, "circuit_open", 0);
+            throw new OutboundRejectedException("Circuit open for " + hostName + ", try again later");
+        }
+        boolean admitted;
+        try {
+            admitted = host.bulkhead.tryAcquire(host.policy.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            host.breaker.onCancel();
+            throw e;
+        }
+        if (!admitted) {
+            host.breaker.onCancel();
+            record(hostName, "rejected", 0);
+            throw new OutboundRejectedException("Too many concurrent calls to " + hostName);
+        }
+        long start = System.nanoTime();
+        try {
+            HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                    .timeout(host.policy.timeout())
+                    .build();
+            HttpResponse<String> response = exchange(timed, host.policy.timeout());
+            if (response.statusCode() >= 500) {
+                host.breaker.onFailure();
+                record(hostName, "server_error", System.nanoTime() - start);
+            } else {
+                host.breaker.onSuccess();
+                record(hostName, response.statusCode() >= 400 ? "client_error" : "success", System.nanoTime() - start);
+            }
+            return response;
+        } catch (IOException e) {
+            host.breaker.onFailure();
+            record(hostName, e instanceof HttpTimeoutException ? "timeout" : "error",
+                    System.nanoTime() - start);
+            throw e;
+        } catch (InterruptedException | RuntimeException e) {
+            host.breaker.onCancel();
+            throw e;
+        } finally {
+            host.bulkhead.release();
+        }
+    }
+
+    /**
+     * The request timeout of the JDK client only covers the response headers, so the whole
+     * exchange, body included, is bounded here and cancelled when it overruns.
+     */
+    private HttpResponse<String> exchange(HttpRequest request, Duration timeout) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        try {
+            return exchange.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException("Request to " + request.uri().getHost() + " did not complete within " + timeout);
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private Host host(String hostName) {
+        HostPolicy policy = policies.apply(hostName);
+        Host host = new Host(policy, new Semaphore(policy.maxConcurrent()),
+                new CircuitBreaker(policy.failureThreshold(), policy.openDuration().toNanos()));
+        Gauge.builder("ai.tools.http.circuit.state", host, h -> h.breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("host", hostName)
+                .register(meterRegistry);
+        Gauge.builder("ai.tools.http.in.flight", host, h -> policy.maxConcurrent() - h.bulkhead.availablePermits())
+                .tag("host", hostName)
+                .register(meterRegistry);
+        return host;
+    }
+
+    private void record(String host, String outcome, long nanos) {
+        Timer.builder("ai.tools.http.requests")
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private record Host(HostPolicy policy, Semaphore bulkhead, CircuitBreaker breaker) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.ai.springaitool.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown without touching the network when a host's circuit is open or its bulkhead is full.
+ * @author avinash
+ */
+public class OutboundRejectedException extends IOException {
+
+    public OutboundRejectedException(String message) {
+        super(message);
+    }
+}
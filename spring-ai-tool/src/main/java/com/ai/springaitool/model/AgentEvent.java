@@ -0,0 +1,50 @@
+package com.ai.springaitool.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Events streamed by {@code POST /api/agent/chat/stream}; {@link #name()} is the SSE event name.
+ * @author avinash
+ */
+public sealed interface AgentEvent {
+
+    @JsonIgnore
+    String name();
+
+    record ToolStarted(String id, String tool, String arguments) implements AgentEvent {
+        @Override
+        public String name() {
+            return "tool-started";
+        }
+    }
+
+    record ToolFinished(String id, String tool, long durationMillis, boolean failed) implements AgentEvent {
+        @Override
+        public String name() {
+            return "tool-finished";
+        }
+    }
+
+    record Token(String text) implements AgentEvent {
+        @Override
+        public String name() {
+            return "token";
+        }
+    }
+
+    record Answer(String response, List<ToolFinished> tools) implements AgentEvent {
+        @Override
+        public String name() {
+            return "answer";
+        }
+    }
+
+    record Failure(String message) implements AgentEvent {
+        @Override
+        public String name() {
+            return "error";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ai.springaitool.prefetch;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap, local guess at the tool calls a message will lead to: locations of a weather question
+ * and the topics the user asks about. Only capitalised names are taken, the way the model
+ * usually passes them on to the tools.
+ * @author avinash
+ */
+@Component
+public class EntityDetector {
+
+    private static final String NAME = "(\\p{Lu}[\\p{L}.'-]*(?:\\s+(?:(?:of|de|da|di|del|la|van|von)\\s+)?\\p{Lu}[\\p{L}.'-]*)*)";
+
+    private static final Pattern WEATHER = Pattern.compile(
+            "\\b(weather|temperature|forecast|rain\\w*|snow\\w*|sunny|humid\\w*|wind\\w*|hot|cold|warm)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern LOCATION = Pattern.compile("\\b(?:in|at|for)\\s+" + NAME);
+
+    private static final Pattern TOPIC = Pattern.compile(
+            "(?i:\\b(?:tell me about|information (?:about|on)|who (?:is|was)|what (?:is|was|are)|about))\\s+"
+                    + "(?i:the\\s+)?" + NAME);
+
+    public enum Kind {
+        LOCATION, TOPIC
+    }
+
+    public record Entity(Kind kind, String value) {
+    }
+
+    /**
+     * @return the detected entities, weather locations first, without duplicates
+     */
+    public List<Entity> detect(String message) {
+        if (message == null || message.isBlank()) {
+            return List.of();
+        }
+        Set<Entity> entities = new LinkedHashSet<>();
+        if (WEATHER.matcher(message).find()) {
+            collect(LOCATION.matcher(message), Kind.LOCATION, entities);
+        }
+        collect(TOPIC.matcher(message), Kind.TOPIC, entities);
+        return new ArrayList<>(entities);
+    }
+
+    private static void collect(Matcher matcher, Kind kind, Set<Entity> entities) {
+        while (matcher.find()) {
+            String value = matcher.group(1).replaceAll("[.'-]+$", "");
+            if (!value.isEmpty()) {
+                entities.add(new Entity(kind, value));
+            }
+        }
+    }
+}
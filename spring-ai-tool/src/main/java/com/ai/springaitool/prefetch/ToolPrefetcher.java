@@ -0,0 +1,96 @@
+package com.ai.springaitool.prefetch;
+
+import com.ai.springaitool.cache.ToolResultCache;
+import com.ai.springaitool.tools.WeatherTool;
+import com.ai.springaitool.tools.WikipediaTool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Warms the tool result caches for the entities a message mentions while the first model round
+ * is still deciding which tools to call, so the call usually finds its result ready.
+ * <p>
+ * Wasted work is bounded: at most {@code max-per-request} prefetches per message, at most
+ * {@code max-in-flight} across all requests, and keys that are cached or loading are skipped.
+ * Prefetches that no call used are counted per tool by the cache; those dropped for the
+ * in-flight limit as {@code ai.agent.prefetch.throttled}.
+ * @author avinash
+ */
+@Service
+@Slf4j
+public class ToolPrefetcher {
+
+    private final EntityDetector entityDetector;
+    private final WeatherTool weatherTool;
+    private final WikipediaTool wikipediaTool;
+    private final boolean enabled;
+    private final int maxPerRequest;
+    private final Semaphore inFlight;
+    private final Counter throttled;
+
+    public ToolPrefetcher(EntityDetector entityDetector, WeatherTool weatherTool, WikipediaTool wikipediaTool,
+                          @Value("${ai.agent.prefetch.enabled:true}") boolean enabled,
+                          @Value("${ai.agent.prefetch.max-per-request:2}") int maxPerRequest,
+                          @Value("${ai.agent.prefetch.max-in-flight:16}") int maxInFlight,
+                          MeterRegistry meterRegistry) {
+        this.entityDetector = entityDetector;
+        this.weatherTool = weatherTool;
+        this.wikipediaTool = wikipediaTool;
+        this.enabled = enabled;
+        this.maxPerRequest = maxPerRequest;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.throttled = Counter.builder("ai.agent.prefetch.throttled").register(meterRegistry);
+    }
+
+    /**
+     * Starts the prefetches for a message. Close the returned session when the request is over.
+     */
+    public Session start(String message) {
+        if (!enabled) {
+            return new Session(List.of());
+        }
+        List<ToolResultCache.Prefetch> started = new ArrayList<>();
+        for (EntityDetector.Entity entity : entityDetector.detect(message)) {
+            if (started.size() >= maxPerRequest) {
+                break;
+            }
+            if (!inFlight.tryAcquire()) {
+                throttled.increment();
+                break;
+            }
+            ToolResultCache.Prefetch prefetch = switch (entity.kind()) {
+                case LOCATION -> weatherTool.prefetch(entity.value());
+                case TOPIC -> wikipediaTool.prefetch(entity.value());
+            };
+            if (prefetch == null) {
+                inFlight.release();
+                continue;
+            }
+            prefetch.result().whenComplete((result, e) -> inFlight.release());
+            started.add(prefetch);
+            log.debug("Prefetching {} '{}'", entity.kind(), entity.value());
+        }
+        return new Session(started);
+    }
+
+    /**
+     * The prefetches made for one request.
+     */
+    public record Session(List<ToolResultCache.Prefetch> prefetches) implements AutoCloseable {
+
+        /**
+         * Settles the prefetches, counting those no tool call used as wasted.
+         */
+        @Override
+        public void close() {
+            prefetches.forEach(ToolResultCache.Prefetch::settle);
+        }
+    }
+}
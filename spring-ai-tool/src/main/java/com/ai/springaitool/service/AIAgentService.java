@@ -1,12 +1,20 @@
 package com.ai.springaitool.service;
 
+import com.ai.springaitool.model.AgentEvent;
 import com.ai.springaitool.model.ChatResponse;
+import com.ai.springaitool.prefetch.ToolPrefetcher;
+import com.ai.springaitool.tools.ToolExecutionListener;
 import com.ai.springaitool.tools.WeatherTool;
 import com.ai.springaitool.tools.WikipediaTool;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
 
 /**
  * AI Agent Service that orchestrates tool usage with Spring AI
@@ -18,10 +26,13 @@ public class AIAgentService {
     private final ChatClient chatClient;
     private final WeatherTool weatherTool;
     private final WikipediaTool wikipediaTool;
+    private final ToolPrefetcher toolPrefetcher;
 
-    public AIAgentService(OpenAiChatModel chatModel, WeatherTool weatherTool, WikipediaTool wikipediaTool) {
+    public AIAgentService(ChatModel chatModel, WeatherTool weatherTool, WikipediaTool wikipediaTool,
+                          ToolPrefetcher toolPrefetcher) {
         this.weatherTool = weatherTool;
         this.wikipediaTool = wikipediaTool;
+        this.toolPrefetcher = toolPrefetcher;
         
         // Build ChatClient with function calling enabled
         this.chatClient = ChatClient.builder(chatModel)
@@ -37,19 +48,20 @@ public class AIAgentService {
      * Process user message with an AI agent that can use tools
      */
     public ChatResponse chat(String userMessage) {
-        try {
+        AgentRun run = new AgentRun(event -> { });
+        // warm the tool caches while the model decides which tools to call
+        try (ToolPrefetcher.Session prefetch = toolPrefetcher.start(userMessage)) {
             // Call the AI with function calling enabled
             String response = chatClient.prompt()
                     .user(userMessage)
+                    .toolContext(Map.of(ToolExecutionListener.CONTEXT_KEY, run))
                     .call()
                     .content();
 
-            // For now, return simple response
-            // Tool usage detection can be enhanced with metadata inspection
             return new ChatResponse(
-                    response, 
-                    true, 
-                    "Weather and Wikipedia tools available"
+                    response,
+                    !run.finished().isEmpty(),
+                    run.toolsUsed()
             );
 
         } catch (Exception e) {
@@ -61,6 +73,36 @@ public class AIAgentService {
         }
     }
 
+    /**
+     * Stream the agent's progress: tool starts and finishes as they happen, answer tokens as the
+     * model produces them, then the full answer with the tools that ran. Errors end the stream
+     * with an error event.
+     */
+    public Flux<AgentEvent> stream(String userMessage) {
+        Sinks.Many<AgentEvent> toolEvents = Sinks.many().unicast().onBackpressureBuffer();
+        // AgentRun serialises its callbacks, so the sink never sees concurrent emissions
+        AgentRun run = new AgentRun(toolEvents::tryEmitNext);
+        StringBuilder answer = new StringBuilder();
+
+        Flux<AgentEvent> tokens = Flux.using(
+                        () -> toolPrefetcher.start(userMessage),
+                        prefetch -> chatClient.prompt()
+                                .user(userMessage)
+                                .toolContext(Map.of(ToolExecutionListener.CONTEXT_KEY, run))
+                                .stream()
+                                .content(),
+                        ToolPrefetcher.Session::close)
+                .filter(text -> !text.isEmpty())
+                .doOnNext(answer::append)
+                .<AgentEvent>map(AgentEvent.Token::new)
+                .concatWith(Mono.fromSupplier(() -> new AgentEvent.Answer(answer.toString(), run.finished())))
+                .onErrorResume(e -> Mono.just(new AgentEvent.Failure("Error processing request: " + e.getMessage())))
+                .doFinally(signal -> toolEvents.tryEmitComplete());
+
+        // tool events are emitted on the tool threads, before the tokens that follow the tool results
+        return Flux.merge(toolEvents.asFlux(), tokens);
+    }
+
     /**
      * Get weather information for a location
      */
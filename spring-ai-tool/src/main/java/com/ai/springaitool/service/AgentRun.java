@@ -0,0 +1,47 @@
+package com.ai.springaitool.service;
+
+import com.ai.springaitool.model.AgentEvent;
+import com.ai.springaitool.tools.ToolExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tool activity of one agent request: records the tools that actually ran and forwards each
+ * start and finish to an event consumer as it happens.
+ * @author avinash
+ */
+class AgentRun implements ToolExecutionListener {
+
+    private final Consumer<AgentEvent> events;
+    private final List<AgentEvent.ToolFinished> finished = new ArrayList<>();
+
+    AgentRun(Consumer<AgentEvent> events) {
+        this.events = events;
+    }
+
+    @Override
+    public synchronized void toolStarted(String callId, String tool, String arguments) {
+        events.accept(new AgentEvent.ToolStarted(callId, tool, arguments));
+    }
+
+    @Override
+    public synchronized void toolFinished(String callId, String tool, long durationMillis, boolean failed) {
+        AgentEvent.ToolFinished event = new AgentEvent.ToolFinished(callId, tool, durationMillis, failed);
+        finished.add(event);
+        events.accept(event);
+    }
+
+    synchronized List<AgentEvent.ToolFinished> finished() {
+        return List.copyOf(finished);
+    }
+
+    /**
+     * Distinct tool names in the order they first finished, or "None".
+     */
+    synchronized String toolsUsed() {
+        List<String> names = finished.stream().map(AgentEvent.ToolFinished::tool).distinct().toList();
+        return names.isEmpty() ? "None" : String.join(", ", names);
+    }
+}
@@ -0,0 +1,207 @@
+package com.ai.springaitool.tools;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+/**
+ * {@link ToolCallingManager} that runs the tool calls of one model response concurrently.
+ * <p>
+ * The stock manager executes them one after the other, so a turn takes the sum of its tool
+ * latencies; here every call gets its own virtual thread and the turn takes the slowest one.
+ * All calls of a turn, including a turn's only call, share one deadline: a call still running when
+ * it passes is interrupted and answered with an error message, so the model can still respond with
+ * what did arrive. The tools treat the interrupt as a transient failure that is not cached. Results
+ * are returned in the order the model requested the calls.
+ * <p>
+ * With {@code parallel} off the calls run one after the other, as in the stock manager, but under
+ * the same deadline and reporting, so request-level tool tracking keeps working either way.
+ * <p>
+ * Each call is timed as {@code ai.agent.tool.calls{tool,outcome}} and reported to the
+ * {@link ToolExecutionListener} found in the tool context, if any.
+ * @author avinash
+ */
+@Slf4j
+public class ParallelToolCallingManager implements ToolCallingManager {
+
+    private final ToolCallingManager delegate;
+    private final ToolCallbackResolver toolCallbackResolver;
+    private final Duration turnDeadline;
+    private final boolean parallel;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelToolCallingManager(ToolCallbackResolver toolCallbackResolver, Duration turnDeadline,
+                                      MeterRegistry meterRegistry) {
+        this(toolCallbackResolver, turnDeadline, true, meterRegistry);
+    }
+
+    public ParallelToolCallingManager(ToolCallbackResolver toolCallbackResolver, Duration turnDeadline,
+                                      boolean parallel, MeterRegistry meterRegistry) {
+        this.delegate = ToolCallingManager.builder().toolCallbackResolver(toolCallbackResolver).build();
+        this.toolCallbackResolver = toolCallbackResolver;
+        this.turnDeadline = turnDeadline;
+        this.parallel = parallel;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(AssistantMessage::hasToolCalls)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No tool call requested by the chat model"));
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+
+        Map<String, ToolCallback> callbacks = new HashMap<>();
+        Map<String, Object> context = new HashMap<>();
+        if (prompt.getOptions() instanceof ToolCallingChatOptions options) {
+            options.getToolCallbacks().forEach(callback -> callbacks.put(callback.getToolDefinition().name(), callback));
+            context.putAll(options.getToolContext());
+        }
+        ToolExecutionListener listener = context.remove(ToolExecutionListener.CONTEXT_KEY) instanceof ToolExecutionListener l
+                ? l : ToolExecutionListener.NONE;
+        List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+        history.add(assistantMessage);
+        if (!context.isEmpty()) {
+            // same as the stock manager: history is only passed along with a caller-supplied context
+            context.put(ToolContext.TOOL_CALL_HISTORY, List.copyOf(history));
+        }
+        ToolContext toolContext = new ToolContext(context);
+
+        List<ToolCallback> resolved = new ArrayList<>(toolCalls.size());
+        boolean returnDirect = true;
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            ToolCallback callback = callbacks.get(toolCall.name());
+            if (callback == null) {
+                callback = toolCallbackResolver.resolve(toolCall.name());
+            }
+            if (callback == null) {
+                throw new IllegalStateException("No ToolCallback found for tool name: " + toolCall.name());
+            }
+            resolved.add(callback);
+            returnDirect &= callback.getToolMetadata().returnDirect();
+        }
+
+        List<ToolResponseMessage.ToolResponse> responses = callWithDeadline(toolCalls, resolved, toolContext, listener);
+
+        history.add(new ToolResponseMessage(responses, Map.of()));
+        return ToolExecutionResult.builder()
+                .conversationHistory(history)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    private List<ToolResponseMessage.ToolResponse> callWithDeadline(List<AssistantMessage.ToolCall> toolCalls,
+                                                                    List<ToolCallback> callbacks,
+                                                                    ToolContext toolContext,
+                                                                    ToolExecutionListener listener) {
+        long deadline = System.nanoTime() + turnDeadline.toNanos();
+        List<Future<String>> futures = new ArrayList<>(toolCalls.size());
+        List<AtomicBoolean> reported = new ArrayList<>(toolCalls.size());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            reported.add(new AtomicBoolean());
+            if (parallel) {
+                futures.add(submit(toolCalls.get(i), callbacks.get(i), toolContext, listener, reported.get(i)));
+            }
+        }
+
+        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(toolCalls.size());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+            if (!parallel) {
+                futures.add(submit(toolCall, callbacks.get(i), toolContext, listener, reported.get(i)));
+            }
+            String result;
+            try {
+                result = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                futures.get(i).cancel(true);
+                finished(listener, reported.get(i), toolCall, turnDeadline.toNanos(), "timeout");
+                log.warn("Tool '{}' did not finish within {}", toolCall.name(), turnDeadline);
+                result = "Tool '" + toolCall.name() + "' did not finish within " + turnDeadline.toMillis() + " ms";
+            } catch (ExecutionException | CancellationException e) {
+                result = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for tool calls", e);
+            }
+            responses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result));
+        }
+        return responses;
+    }
+
+    private Future<String> submit(AssistantMessage.ToolCall toolCall, ToolCallback callback, ToolContext toolContext,
+                                  ToolExecutionListener listener, AtomicBoolean reported) {
+        return executor.submit(() -> call(toolCall, callback, toolContext, listener, reported));
+    }
+
+    /**
+     * Like the stock manager, a failing tool answers the model with the error message.
+     */
+    private String call(AssistantMessage.ToolCall toolCall, ToolCallback callback, ToolContext toolContext,
+                        ToolExecutionListener listener, AtomicBoolean reported) {
+        String arguments = toolCall.arguments() == null || toolCall.arguments().isBlank() ? "{}" : toolCall.arguments();
+        listener.toolStarted(toolCall.id(), toolCall.name(), arguments);
+        long start = System.nanoTime();
+        try {
+            String result = callback.call(arguments, toolContext);
+            finished(listener, reported, toolCall, System.nanoTime() - start, "success");
+            return result;
+        } catch (RuntimeException e) {
+            finished(listener, reported, toolCall, System.nanoTime() - start, "error");
+            log.warn("Tool '{}' failed", toolCall.name(), e);
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Reports a call once, whether it completed or was given up on at the deadline.
+     */
+    private void finished(ToolExecutionListener listener, AtomicBoolean reported, AssistantMessage.ToolCall toolCall,
+                          long nanos, String outcome) {
+        if (!reported.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.builder("ai.agent.tool.calls")
+                .tag("tool", toolCall.name())
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        listener.toolFinished(toolCall.id(), toolCall.name(), TimeUnit.NANOSECONDS.toMillis(nanos), !"success".equals(outcome));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ai.springaitool.tools;
+
+/**
+ * Receives tool progress from {@link ParallelToolCallingManager}. Pass one per request in the
+ * tool context under {@link #CONTEXT_KEY}; it is removed before the context reaches the tools.
+ * Methods may be called concurrently from the threads running the tools.
+ * @author avinash
+ */
+public interface ToolExecutionListener {
+
+    String CONTEXT_KEY = ToolExecutionListener.class.getName();
+
+    ToolExecutionListener NONE = new ToolExecutionListener() {
+        @Override
+        public void toolStarted(String callId, String tool, String arguments) {
+        }
+
+        @Override
+        public void toolFinished(String callId, String tool, long durationMillis, boolean failed) {
+        }
+    };
+
+    void toolStarted(String callId, String tool, String arguments);
+
+    void toolFinished(String callId, String tool, long durationMillis, boolean failed);
+}
@@ -1,17 +1,24 @@
 package com.ai.springaitool.tools;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.springaitool.cache.ToolResultCache;
+import com.ai.springaitool.cache.ToolResultCache.Result;
+import com.ai.springaitool.http.OutboundGateway;
+import com.ai.springaitool.http.OutboundRejectedException;
+import com.ai.springaitool.tools.output.JsonFields;
+import com.ai.springaitool.tools.output.ToolOutputCompactor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author avinash
@@ -20,8 +27,27 @@ import java.nio.charset.StandardCharsets;
 @Slf4j
 public class WeatherTool {
 
-    private static final String WEATHER_API_URL = "https://wttr.in/%s?format=j1";
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String WEATHER_API_PATH = "/%s?format=j1";
+    private static final String CURRENT = "current_condition.0.";
+    private static final String TODAY = "weather.0.";
+    // j1 also carries three days of hourly forecasts and astronomy, which are skipped unparsed
+    private static final List<String> WEATHER_FIELDS = List.of(
+            CURRENT + "temp_C", CURRENT + "FeelsLikeC", CURRENT + "weatherDesc.0.value", CURRENT + "humidity",
+            CURRENT + "windspeedKmph", CURRENT + "winddir16Point", CURRENT + "precipMM", CURRENT + "uvIndex",
+            TODAY + "maxtempC", TODAY + "mintempC");
+    private final OutboundGateway gateway;
+    private final ToolResultCache cache;
+    private final ToolOutputCompactor output;
+    private final String baseUrl;
+
+    public WeatherTool(OutboundGateway gateway, @Qualifier("weatherToolCache") ToolResultCache cache,
+                       @Qualifier("weatherToolOutput") ToolOutputCompactor output,
+                       @Value("${ai.tools.weather.url:https://wttr.in}") String baseUrl) {
+        this.gateway = gateway;
+        this.cache = cache;
+        this.output = output;
+        this.baseUrl = baseUrl;
+    }
 
     /**
      * Get current weather information for a given location.
@@ -31,81 +57,81 @@ public class WeatherTool {
      */
     @Tool(name = "getWeather", description = "Get current weather information for a specific location. Provide the city name or location.")
     public String getWeather(String location) {
-        log.info("Fetching weather for '{}'", location);
         if (location == null || location.trim().isEmpty()) {
             return "Error: Location cannot be empty. Please provide a valid city name.";
         }
+        return cache.get(ToolResultCache.normalize(location), () -> fetchWeather(location)).text();
+    }
+
+    /**
+     * Warms the cache for a location the model is likely to ask about.
+     *
+     * @return the prefetch, or null if the location is already cached or loading
+     */
+    public ToolResultCache.Prefetch prefetch(String location) {
+        return cache.prefetch(ToolResultCache.normalize(location), () -> fetchWeather(location));
+    }
 
+    private Result fetchWeather(String location) {
+        log.info("Fetching weather for '{}'", location);
         try {
             String encodedLocation = URLEncoder.encode(location.trim(), StandardCharsets.UTF_8);
-            String url = String.format(WEATHER_API_URL, encodedLocation);
+            String url = baseUrl + String.format(WEATHER_API_PATH, encodedLocation);
 
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .header("User-Agent", "Spring-AI-Weather-Tool")
                     .GET()
                     .build();
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = gateway.send(request);
 
             if (response.statusCode() == 200) {
                 return parseWeatherResponse(response.body(), location);
             } else {
-                return String.format("Failed to fetch weather data for '%s'. Status code: %d", location, response.statusCode());
+                return Result.failure(String.format("Failed to fetch weather data for '%s'. Status code: %d", location, response.statusCode()));
             }
 
+        } catch (OutboundRejectedException e) {
+            return Result.transientFailure(String.format("Error fetching weather for '%s': %s", location, e.getMessage()));
+        } catch (InterruptedException e) {
+            // cancelled at the turn deadline
+            Thread.currentThread().interrupt();
+            return Result.transientFailure(String.format("Error fetching weather for '%s': interrupted", location));
         } catch (Exception e) {
-            return String.format("Error fetching weather for '%s': %s", location, e.getMessage());
+            return Result.failure(String.format("Error fetching weather for '%s': %s", location, e.getMessage()));
         }
     }
 
     /**
-     * Parse the weather API response and format it into a readable string.
+     * Parse the weather API response into one compact line.
      */
-    private String parseWeatherResponse(String jsonResponse, String location) {
+    private Result parseWeatherResponse(String jsonResponse, String location) {
         try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-            JsonNode currentCondition = root.path("current_condition").get(0);
-            JsonNode weather = root.path("weather").get(0);
-
-            String temperature = currentCondition.path("temp_C").asText();
-            String feelsLike = currentCondition.path("FeelsLikeC").asText();
-            String weatherDesc = currentCondition.path("weatherDesc").get(0).path("value").asText();
-            String humidity = currentCondition.path("humidity").asText();
-            String windSpeed = currentCondition.path("windspeedKmph").asText();
-            String windDir = currentCondition.path("winddir16Point").asText();
-            String precipitation = currentCondition.path("precipMM").asText();
-            String uvIndex = currentCondition.path("uvIndex").asText();
-            
-            String maxTemp = weather.path("maxtempC").asText();
-            String minTemp = weather.path("mintempC").asText();
+            Map<String, String> fields = JsonFields.extract(jsonResponse, WEATHER_FIELDS);
+            if (!fields.containsKey(CURRENT + "temp_C")) {
+                return Result.failure(String.format("No current weather data for '%s'", location));
+            }
 
-            return String.format("""
-                    Weather for %s:
-                    - Condition: %s
-                    - Temperature: %s°C (Feels like: %s°C)
-                    - Today's Range: %s°C to %s°C
-                    - Humidity: %s%%
-                    - Wind: %s km/h %s
-                    - Precipitation: %s mm
-                    - UV Index: %s
-                    """,
+            String weather = String.format(
+                    "Weather for %s: %s. Temperature: %s°C (feels like %s°C), today %s-%s°C. "
+                            + "Humidity %s%%, wind %s km/h %s, precipitation %s mm, UV %s.",
                     location,
-                    weatherDesc,
-                    temperature,
-                    feelsLike,
-                    minTemp,
-                    maxTemp,
-                    humidity,
-                    windSpeed,
-                    windDir,
-                    precipitation,
-                    uvIndex
+                    fields.get(CURRENT + "weatherDesc.0.value"),
+                    fields.get(CURRENT + "temp_C"),
+                    fields.get(CURRENT + "FeelsLikeC"),
+                    fields.get(TODAY + "mintempC"),
+                    fields.get(TODAY + "maxtempC"),
+                    fields.get(CURRENT + "humidity"),
+                    fields.get(CURRENT + "windspeedKmph"),
+                    fields.get(CURRENT + "winddir16Point"),
+                    fields.get(CURRENT + "precipMM"),
+                    fields.get(CURRENT + "uvIndex")
             );
+            return Result.success(output.compact(jsonResponse, weather));
 
         } catch (Exception e) {
-            return String.format("Error parsing weather data for '%s': %s", location, e.getMessage());
+            return Result.failure(String.format("Error parsing weather data for '%s': %s", location, e.getMessage()));
         }
     }
 }
@@ -1,11 +1,20 @@
 package com.ai.springaitool.tools;
 
+import com.ai.springaitool.cache.ToolResultCache;
+import com.ai.springaitool.cache.ToolResultCache.Result;
+import com.ai.springaitool.http.OutboundGateway;
+import com.ai.springaitool.http.OutboundRejectedException;
+import com.ai.springaitool.tools.output.JsonFields;
+import com.ai.springaitool.tools.output.ToolOutputCompactor;
+import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,20 +24,70 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class WikipediaTool {
 
+    // the rest of the summary (thumbnails, URLs, namespaces, revisions) is of no use to the model
+    private static final List<String> SUMMARY_FIELDS = List.of("type", "title", "description", "extract");
+
+    private final OutboundGateway gateway;
+    private final ToolResultCache cache;
+    private final ToolOutputCompactor output;
+    private final String baseUrl;
+
+    public WikipediaTool(OutboundGateway gateway, @Qualifier("wikipediaToolCache") ToolResultCache cache,
+                         @Qualifier("wikipediaToolOutput") ToolOutputCompactor output,
+                         @Value("${ai.tools.wikipedia.url:https://en.wikipedia.org}") String baseUrl) {
+        this.gateway = gateway;
+        this.cache = cache;
+        this.output = output;
+        this.baseUrl = baseUrl;
+    }
+
     @Tool(name = "wikipedia", description = "Get article from wikipedia")
     public String getArticle(String topic) {
-        String url = "https://en.wikipedia.org/api/rest_v1/page/summary/" + topic.replace(" ", "_");
+        return cache.get(ToolResultCache.normalize(topic), () -> fetchArticle(topic)).text();
+    }
+
+    /**
+     * Warms the cache for a topic the model is likely to ask about.
+     *
+     * @return the prefetch, or null if the topic is already cached or loading
+     */
+    public ToolResultCache.Prefetch prefetch(String topic) {
+        return cache.prefetch(ToolResultCache.normalize(topic), () -> fetchArticle(topic));
+    }
+
+    private Result fetchArticle(String topic) {
+        String url = baseUrl + "/api/rest_v1/page/summary/" + topic.trim().replace(" ", "_");
         log.info("Fetching article for '{}'", topic);
-        try (var client = HttpClient.newHttpClient()) {
+        try {
             var request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .GET()
                     .build();
-            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body();
+            var response = gateway.send(request);
+            return response.statusCode() == 200
+                    ? Result.success(output.compact(response.body(), summarize(response.body())))
+                    : Result.failure(output.compact(response.body(), response.body()));
+        } catch (OutboundRejectedException e) {
+            return Result.transientFailure("Failed to fetch article: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // cancelled at the turn deadline
+            Thread.currentThread().interrupt();
+            return Result.transientFailure("Failed to fetch article: interrupted");
         } catch (Exception e) {
-            return "Failed to fetch article: " + e.getMessage();
+            return Result.failure("Failed to fetch article: " + e.getMessage());
         }
 
     }
+
+    private static String summarize(String json) throws IOException {
+        Map<String, String> fields = JsonFields.extract(json, SUMMARY_FIELDS);
+        StringBuilder summary = new StringBuilder(fields.getOrDefault("title", ""));
+        if (fields.containsKey("description")) {
+            summary.append(" (").append(fields.get("description")).append(')');
+        }
+        if ("disambiguation".equals(fields.get("type"))) {
+            summary.append(" [disambiguation page, ask about a more specific topic]");
+        }
+        return summary.append('\n').append(fields.getOrDefault("extract", "")).toString().strip();
+    }
 }
@@ -0,0 +1,89 @@
+package com.ai.springaitool.tools.output;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pulls scalar fields out of a JSON document with a streaming parser. Paths are dot separated,
+ * array elements are addressed by index ({@code current_condition.0.temp_C}). Subtrees that lead
+ * to none of the paths are skipped without being built, and parsing stops once every path is found.
+ * @author avinash
+ */
+public final class JsonFields {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private JsonFields() {
+    }
+
+    /**
+     * @return the value of each path that holds a non-null scalar, keyed by path
+     */
+    public static Map<String, String> extract(String json, Collection<String> paths) throws IOException {
+        Set<String> wanted = Set.copyOf(paths);
+        Set<String> prefixes = new HashSet<>();
+        for (String path : wanted) {
+            for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+                prefixes.add(path.substring(0, dot));
+            }
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() != null) {
+                read(parser, "", wanted, prefixes, values);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the container the parser is positioned on; returns true once every path is found.
+     */
+    private static boolean read(JsonParser parser, String path, Set<String> wanted, Set<String> prefixes,
+                                Map<String, String> values) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String child = path.isEmpty() ? parser.currentName() : path + "." + parser.currentName();
+                parser.nextToken();
+                if (visit(parser, child, wanted, prefixes, values)) {
+                    return true;
+                }
+            }
+        } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                String child = path.isEmpty() ? String.valueOf(index) : path + "." + index;
+                index++;
+                if (visit(parser, child, wanted, prefixes, values)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean visit(JsonParser parser, String path, Set<String> wanted, Set<String> prefixes,
+                                 Map<String, String> values) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue()) {
+            if (wanted.contains(path) && token != JsonToken.VALUE_NULL) {
+                values.put(path, parser.getValueAsString());
+                return values.size() == wanted.size();
+            }
+            return false;
+        }
+        if (prefixes.contains(path)) {
+            return read(parser, path, wanted, prefixes, values);
+        }
+        parser.skipChildren();
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ai.springaitool.tools.output;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+/**
+ * Last stage before a tool result goes back to the model: fits the text into the tool's token
+ * budget, cutting at a word boundary, and records how many tokens the upstream response had and
+ * how many are handed on ({@code ai.tool.output.tokens{tool,stage=input|output}}).
+ * @author avinash
+ */
+@Slf4j
+public class ToolOutputCompactor {
+
+    static final String TRUNCATED = " [truncated]";
+
+    private final String tool;
+    private final int maxTokens;
+    private final TokenCountEstimator tokenCountEstimator;
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary outputTokens;
+    private final Counter truncated;
+
+    public ToolOutputCompactor(String tool, int maxTokens, TokenCountEstimator tokenCountEstimator,
+                               MeterRegistry meterRegistry) {
+        this.tool = tool;
+        this.maxTokens = maxTokens;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.inputTokens = tokens("input", meterRegistry);
+        this.outputTokens = tokens("output", meterRegistry);
+        this.truncated = Counter.builder("ai.tool.output.truncated")
+                .tag("tool", tool)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param raw  the upstream response the text was taken from, counted for the input side
+     * @param text what the tool would answer
+     * @return the text, truncated to the budget if needed
+     */
+    public String compact(String raw, String text) {
+        int rawTokens = tokenCountEstimator.estimate(raw);
+        String fitted = fit(text);
+        int fittedTokens = tokenCountEstimator.estimate(fitted);
+        inputTokens.record(rawTokens);
+        outputTokens.record(fittedTokens);
+        log.debug("Tool '{}' output compacted from {} to {} tokens", tool, rawTokens, fittedTokens);
+        return fitted;
+    }
+
+    /**
+     * Longest prefix, ending at whitespace where possible, that fits the budget with the marker.
+     */
+    String fit(String text) {
+        if (tokenCountEstimator.estimate(text) <= maxTokens) {
+            return text;
+        }
+        truncated.increment();
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (tokenCountEstimator.estimate(text.substring(0, mid) + TRUNCATED) <= maxTokens) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int end = low;
+        while (end > 0 && end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+        return text.substring(0, end > 0 ? end : low).stripTrailing() + TRUNCATED;
+    }
+
+    private DistributionSummary tokens(String stage, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("ai.tool.output.tokens")
+                .tag("tool", tool)
+                .tag("stage", stage)
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+}
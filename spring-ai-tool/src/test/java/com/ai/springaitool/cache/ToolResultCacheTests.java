@@ -0,0 +1,218 @@
+package com.ai.springaitool.cache;
+
+import com.ai.springaitool.http.HostPolicy;
+import com.ai.springaitool.http.OutboundGateway;
+import com.ai.springaitool.tools.WeatherTool;
+import com.ai.springaitool.tools.output.ToolOutputCompactor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolResultCacheTests {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicBoolean slow = new AtomicBoolean();
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private WeatherTool weatherTool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            int request = requests.incrementAndGet();
+            if (slow.getAndSet(false)) {
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = weather(request).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(failing.get() ? 503 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        ToolResultCache cache = new ToolResultCache("getWeather", Duration.ofMinutes(5), Duration.ofMinutes(10),
+                Duration.ofSeconds(30), 100, meterRegistry, clock, Runnable::run);
+        OutboundGateway gateway = new OutboundGateway(HttpClient.newHttpClient(), host -> new HostPolicy(
+                Duration.ofSeconds(5), 8, Duration.ZERO, 100, Duration.ofSeconds(1)), meterRegistry);
+        weatherTool = new WeatherTool(gateway, cache,
+                new ToolOutputCompactor("getWeather", 120, new JTokkitTokenCountEstimator(), meterRegistry),
+                "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void repeatedQuestionsAreServedFromCache() {
+        String first = weatherTool.getWeather("London");
+        String second = weatherTool.getWeather("  london ");
+
+        assertThat(first).contains("Temperature: 1°C");
+        assertThat(second).isEqualTo(first);
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.tool.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void staleResultIsServedWhileRefreshing() {
+        weatherTool.getWeather("Paris");
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThat(weatherTool.getWeather("Paris")).contains("Temperature: 1°C");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(weatherTool.getWeather("Paris")).contains("Temperature: 2°C");
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedRefreshKeepsTheStaleResultAndBacksOff() {
+        weatherTool.getWeather("Oslo");
+        clock.advance(Duration.ofMinutes(6));
+        failing.set(true);
+
+        assertThat(weatherTool.getWeather("Oslo")).contains("Temperature: 1°C");
+        assertThat(weatherTool.getWeather("Oslo")).contains("Temperature: 1°C");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("ai.tool.cache.refresh.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failuresAreCachedBriefly() {
+        failing.set(true);
+        assertThat(weatherTool.getWeather("Rome")).contains("Status code: 503");
+        assertThat(weatherTool.getWeather("Rome")).contains("Status code: 503");
+        assertThat(requests.get()).isEqualTo(1);
+
+        failing.set(false);
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(weatherTool.getWeather("Rome")).contains("Temperature: 2°C");
+    }
+
+    @Test
+    void rejectedCallsAreNotCached() {
+        ToolResultCache cache = new ToolResultCache("getWeather", Duration.ofMinutes(5), Duration.ofMinutes(10),
+                Duration.ofSeconds(30), 100, meterRegistry, clock, Runnable::run);
+        OutboundGateway gateway = new OutboundGateway(HttpClient.newHttpClient(), host -> new HostPolicy(
+                Duration.ofSeconds(5), 8, Duration.ZERO, 1, Duration.ofMinutes(1)), meterRegistry);
+        WeatherTool breakingTool = new WeatherTool(gateway, cache,
+                new ToolOutputCompactor("getWeather", 120, new JTokkitTokenCountEstimator(), meterRegistry),
+                "http://localhost:" + server.getAddress().getPort());
+        failing.set(true);
+
+        assertThat(breakingTool.getWeather("Rome")).contains("Status code: 503");
+        assertThat(breakingTool.getWeather("Berlin")).contains("Circuit open");
+        assertThat(breakingTool.getWeather("Berlin")).contains("Circuit open");
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.tool.cache.requests").tag("result", "miss").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ai.tool.cache.requests").tag("result", "negative").counter().count()).isZero();
+    }
+
+    @Test
+    void interruptedCallsKeepTheInterruptAndAreNotCached() throws InterruptedException {
+        slow.set(true);
+        AtomicReference<String> answer = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            answer.set(weatherTool.getWeather("Vienna"));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        Thread.sleep(200);
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertThat(answer.get()).isEqualTo("Error fetching weather for 'Vienna': interrupted");
+        assertThat(interrupted).isTrue();
+        assertThat(weatherTool.getWeather("Vienna")).contains("Temperature: 2°C");
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void prefetchedResultIsServedToTheToolCall() {
+        ToolResultCache.Prefetch prefetch = weatherTool.prefetch("London");
+
+        assertThat(prefetch).isNotNull();
+        assertThat(weatherTool.prefetch("london")).isNull();
+        assertThat(weatherTool.getWeather("London")).contains("Temperature: 1°C");
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(prefetch.settle()).isTrue();
+        assertThat(meterRegistry.get("ai.tool.prefetch").tag("outcome", "used").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.tool.prefetch").tag("outcome", "wasted").counter().count()).isZero();
+    }
+
+    @Test
+    void unusedPrefetchIsCountedAsWasted() {
+        ToolResultCache.Prefetch prefetch = weatherTool.prefetch("Lisbon");
+        weatherTool.getWeather("Madrid");
+
+        assertThat(prefetch.settle()).isFalse();
+        assertThat(meterRegistry.get("ai.tool.prefetch").tag("outcome", "wasted").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.tool.prefetch").tag("outcome", "used").counter().count()).isZero();
+    }
+
+    private static String weather(int temperature) {
+        return """
+                {"current_condition":[{"temp_C":"%d","FeelsLikeC":"0","weatherDesc":[{"value":"Sunny"}],
+                "humidity":"50","windspeedKmph":"5","winddir16Point":"N","precipMM":"0","uvIndex":"3"}],
+                "weather":[{"maxtempC":"15","mintempC":"8"}]}""".formatted(temperature);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-01-01T00:00:00Z").toEpochMilli());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
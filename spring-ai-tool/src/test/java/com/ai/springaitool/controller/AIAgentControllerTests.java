@@ -0,0 +1,229 @@
+package com.ai.springaitool.controller;
+
+import com.ai.springaitool.cache.ToolResultCache;
+import com.ai.springaitool.http.HostPolicy;
+import com.ai.springaitool.http.OutboundGateway;
+import com.ai.springaitool.prefetch.EntityDetector;
+import com.ai.springaitool.prefetch.ToolPrefetcher;
+import com.ai.springaitool.service.AIAgentService;
+import com.ai.springaitool.tools.ParallelToolCallingManager;
+import com.ai.springaitool.tools.WeatherTool;
+import com.ai.springaitool.tools.WikipediaTool;
+import com.ai.springaitool.tools.output.ToolOutputCompactor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AIAgentControllerTests {
+
+    private static final Pattern EVENT = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+    private static final Map<String, String> ARGUMENTS = Map.of(
+            "getWeather", "{\"location\":\"London\"}",
+            "wikipedia", "{\"topic\":\"Big Ben\"}");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private WeatherTool weatherTool;
+    private WikipediaTool wikipediaTool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = (exchange.getRequestURI().getPath().startsWith("/api/rest_v1")
+                    ? "{\"type\":\"standard\",\"title\":\"Big Ben\",\"extract\":\"Clock tower in London.\"}"
+                    : """
+                    {"current_condition":[{"temp_C":"12","FeelsLikeC":"10","weatherDesc":[{"value":"Cloudy"}],
+                    "humidity":"70","windspeedKmph":"9","winddir16Point":"W","precipMM":"0","uvIndex":"1"}],
+                    "weather":[{"maxtempC":"14","mintempC":"7"}]}""").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        String url = "http://localhost:" + server.getAddress().getPort();
+        OutboundGateway gateway = new OutboundGateway(HttpClient.newHttpClient(), host -> new HostPolicy(
+                Duration.ofSeconds(5), 8, Duration.ZERO, 100, Duration.ofSeconds(1)), meterRegistry);
+        weatherTool = new WeatherTool(gateway, cache("getWeather"), output("getWeather"), url);
+        wikipediaTool = new WikipediaTool(gateway, cache("wikipedia"), output("wikipedia"), url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamReportsToolsBeforeTheTokensAndEndsWithTheAnswer() throws Exception {
+        MockMvc mockMvc = mockMvc(new ToolCallingModel(true, List.of("getWeather")));
+
+        String body = stream(mockMvc, "What's the weather in London?");
+
+        assertThat(events(body)).containsExactly("tool-started", "tool-finished", "token", "token", "answer");
+        assertThat(body).contains("\"tool\":\"getWeather\"", "\"failed\":false", "\"text\":\" in London\"",
+                "\"response\":\"Cloudy in London\"");
+    }
+
+    @Test
+    void streamEndsWithAnErrorEventWhenTheModelFails() throws Exception {
+        ToolCallingModel model = new ToolCallingModel(true, List.of());
+        model.failure = new IllegalStateException("model unavailable");
+
+        String body = stream(mockMvc(model), "What's the weather in London?");
+
+        assertThat(events(body)).containsExactly("error");
+        assertThat(body).contains("\"message\":\"Error processing request: model unavailable\"");
+    }
+
+    @Test
+    void chatNamesTheToolsThatRan() throws Exception {
+        mockMvc(new ToolCallingModel(true, List.of("getWeather", "wikipedia"))).perform(post("/api/agent/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"Weather in London and tell me about Big Ben\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value("Cloudy in London"))
+                .andExpect(jsonPath("$.usedTools").value(true))
+                .andExpect(jsonPath("$.toolsUsed").value("getWeather, wikipedia"));
+    }
+
+    @Test
+    void chatNamesTheToolsThatRanWhenToolsRunSequentially() throws Exception {
+        mockMvc(new ToolCallingModel(false, List.of("wikipedia"))).perform(post("/api/agent/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"Tell me about Big Ben\"}"))
+                .andExpect(jsonPath("$.usedTools").value(true))
+                .andExpect(jsonPath("$.toolsUsed").value("wikipedia"));
+    }
+
+    @Test
+    void chatWithoutToolCallsReportsNone() throws Exception {
+        mockMvc(new ToolCallingModel(true, List.of())).perform(post("/api/agent/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"Hello\"}"))
+                .andExpect(jsonPath("$.usedTools").value(false))
+                .andExpect(jsonPath("$.toolsUsed").value("None"));
+    }
+
+    private MockMvc mockMvc(ChatModel chatModel) {
+        ToolPrefetcher prefetcher = new ToolPrefetcher(new EntityDetector(), weatherTool, wikipediaTool, false, 2, 16,
+                meterRegistry);
+        AIAgentService service = new AIAgentService(chatModel, weatherTool, wikipediaTool, prefetcher);
+        return MockMvcBuilders.standaloneSetup(new AIAgentController(service)).build();
+    }
+
+    private static String stream(MockMvc mockMvc, String message) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/agent/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"" + message + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> events(String body) {
+        List<String> events = new ArrayList<>();
+        Matcher matcher = EVENT.matcher(body);
+        while (matcher.find()) {
+            events.add(matcher.group(1));
+        }
+        return events;
+    }
+
+    private ToolResultCache cache(String tool) {
+        return new ToolResultCache(tool, Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofSeconds(30), 100,
+                meterRegistry);
+    }
+
+    private ToolOutputCompactor output(String tool) {
+        return new ToolOutputCompactor(tool, 120, new JTokkitTokenCountEstimator(), meterRegistry);
+    }
+
+    /**
+     * Stands in for the OpenAI model: the first round asks for the given tools and runs them
+     * through the tool calling manager, as the real model does internally, then answers.
+     */
+    private final class ToolCallingModel implements ChatModel {
+
+        private final ToolCallingManager toolCallingManager;
+        private final List<String> tools;
+        private volatile RuntimeException failure;
+
+        ToolCallingModel(boolean parallel, List<String> tools) {
+            this.toolCallingManager = new ParallelToolCallingManager(name -> null, Duration.ofSeconds(5), parallel,
+                    meterRegistry);
+            this.tools = tools;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            if (failure != null) {
+                throw failure;
+            }
+            runTools(prompt);
+            return response("Cloudy in London");
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                if (failure != null) {
+                    return Flux.error(failure);
+                }
+                runTools(prompt);
+                return Flux.just("Cloudy", " in London").map(ToolCallingModel::response);
+            });
+        }
+
+        private void runTools(Prompt prompt) {
+            boolean answered = prompt.getInstructions().stream().anyMatch(ToolResponseMessage.class::isInstance);
+            if (tools.isEmpty() || answered) {
+                return;
+            }
+            List<AssistantMessage.ToolCall> calls = new ArrayList<>();
+            for (String tool : tools) {
+                calls.add(new AssistantMessage.ToolCall(String.valueOf(calls.size()), "function", tool, ARGUMENTS.get(tool)));
+            }
+            toolCallingManager.executeToolCalls(prompt,
+                    new ChatResponse(List.of(new Generation(new AssistantMessage("", Map.of(), calls)))));
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
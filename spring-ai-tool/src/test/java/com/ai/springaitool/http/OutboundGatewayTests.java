@@ -0,0 +1,153 @@
+package com.ai.springaitool.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundGatewayTests {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicLong latencyMillis = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/stalled", exchange -> {
+            // headers and the first bytes arrive, then the body stops
+            exchange.sendResponseHeaders(200, 100);
+            OutputStream out = exchange.getResponseBody();
+            out.write("ok".getBytes());
+            out.flush();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes();
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void slowHostIsCutOffAtItsTimeout() {
+        latencyMillis.set(2_000);
+        OutboundGateway gateway = gateway(new HostPolicy(Duration.ofMillis(200), 4, Duration.ZERO, 5, Duration.ofSeconds(1)));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.send(request())).isInstanceOf(HttpTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("ai.tools.http.requests").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void stalledBodyIsCutOffAtTheTimeout() {
+        OutboundGateway gateway = gateway(new HostPolicy(Duration.ofMillis(300), 1, Duration.ZERO, 5, Duration.ofSeconds(1)));
+        HttpRequest stalled = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort()
+                + "/stalled")).GET().build();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gateway.send(stalled)).isInstanceOf(HttpTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("ai.tools.http.requests").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+        // the bulkhead permit of the stalled call is back
+        assertThat(meterRegistry.get("ai.tools.http.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void circuitOpensOnFailuresAndClosesAfterASuccessfulProbe() throws Exception {
+        status.set(500);
+        OutboundGateway gateway = gateway(new HostPolicy(Duration.ofSeconds(2), 4, Duration.ZERO, 3, Duration.ofMillis(300)));
+        for (int i = 0; i < 3; i++) {
+            assertThat(gateway.send(request()).statusCode()).isEqualTo(500);
+        }
+
+        assertThatThrownBy(() -> gateway.send(request())).isInstanceOf(OutboundRejectedException.class);
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("ai.tools.http.circuit.state").gauge().value()).isEqualTo(1);
+
+        Thread.sleep(400);
+        status.set(200);
+        assertThat(gateway.send(request()).statusCode()).isEqualTo(200);
+        assertThat(meterRegistry.get("ai.tools.http.circuit.state").gauge().value()).isZero();
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheHostLimit() throws Exception {
+        latencyMillis.set(500);
+        OutboundGateway gateway = gateway(new HostPolicy(Duration.ofSeconds(2), 2, Duration.ZERO, 5, Duration.ofSeconds(1)));
+
+        List<Future<HttpResponse<String>>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            for (int i = 0; i < 5; i++) {
+                calls.add(executor.submit(() -> gateway.send(request())));
+            }
+        }
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<HttpResponse<String>> call : calls) {
+            try {
+                call.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(OutboundRejectedException.class);
+                rejected++;
+            }
+        }
+        assertThat(succeeded).isEqualTo(2);
+        assertThat(rejected).isEqualTo(3);
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    private OutboundGateway gateway(HostPolicy policy) {
+        return new OutboundGateway(HttpClient.newHttpClient(), host -> policy, meterRegistry);
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/")).GET().build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ai.springaitool.prefetch;
+
+import com.ai.springaitool.prefetch.EntityDetector.Entity;
+import com.ai.springaitool.prefetch.EntityDetector.Kind;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityDetectorTests {
+
+    private final EntityDetector detector = new EntityDetector();
+
+    @Test
+    void detectsWeatherLocationsAndTopics() {
+        assertThat(detector.detect("What's the temperature in Paris and give me information about the Eiffel Tower"))
+                .containsExactly(new Entity(Kind.LOCATION, "Paris"), new Entity(Kind.TOPIC, "Eiffel Tower"));
+        assertThat(detector.detect("Is it raining in New York?"))
+                .containsExactly(new Entity(Kind.LOCATION, "New York"));
+        assertThat(detector.detect("who was Leonardo da Vinci"))
+                .containsExactly(new Entity(Kind.TOPIC, "Leonardo da Vinci"));
+    }
+
+    @Test
+    void placesOutsideWeatherQuestionsAndLowerCaseWordsAreIgnored() {
+        assertThat(detector.detect("I live in London, what is Spring Framework?"))
+                .containsExactly(new Entity(Kind.TOPIC, "Spring Framework"));
+        assertThat(detector.detect("tell me about it")).isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.ai.springaitool.tools;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelToolCallingManagerTests {
+
+    @Test
+    void toolCallsOfOneTurnRunConcurrentlyAndKeepTheirOrder() {
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(name -> null, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        Prompt prompt = prompt(slowTool("getWeather", 400), slowTool("wikipedia", 300));
+
+        long start = System.nanoTime();
+        ToolExecutionResult result = manager.executeToolCalls(prompt, toolCalls("getWeather", "wikipedia", "getWeather"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(elapsed).isLessThan(Duration.ofMillis(900));
+        assertThat(responses(result)).extracting(ToolResponseMessage.ToolResponse::id).containsExactly("0", "1", "2");
+        assertThat(responses(result)).extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("getWeather(0)", "wikipedia(1)", "getWeather(2)");
+        assertThat(result.conversationHistory()).hasSize(3);
+    }
+
+    @Test
+    void callsPastTheDeadlineAreReportedAsTimedOut() {
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(name -> null, Duration.ofMillis(200), new SimpleMeterRegistry());
+        Prompt prompt = prompt(slowTool("getWeather", 50), slowTool("wikipedia", 5_000));
+
+        long start = System.nanoTime();
+        ToolExecutionResult result = manager.executeToolCalls(prompt, toolCalls("getWeather", "wikipedia"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(responses(result)).extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("getWeather(0)", "Tool 'wikipedia' did not finish within 200 ms");
+    }
+
+    @Test
+    void aSingleCallIsAlsoBoundByTheDeadline() {
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(name -> null, Duration.ofMillis(200), new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        ToolExecutionResult result = manager.executeToolCalls(prompt(slowTool("wikipedia", 5_000)), toolCalls("wikipedia"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(responses(result)).extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("Tool 'wikipedia' did not finish within 200 ms");
+    }
+
+    @Test
+    void listenerInTheToolContextSeesEachCallStartAndFinishOnce() throws InterruptedException {
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(name -> null, Duration.ofMillis(200), new SimpleMeterRegistry());
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        ToolExecutionListener listener = new ToolExecutionListener() {
+            @Override
+            public void toolStarted(String callId, String tool, String arguments) {
+                events.add("started " + tool);
+            }
+
+            @Override
+            public void toolFinished(String callId, String tool, long durationMillis, boolean failed) {
+                events.add((failed ? "failed " : "finished ") + tool);
+            }
+        };
+        Prompt prompt = new Prompt(List.of(new UserMessage("question")), ToolCallingChatOptions.builder()
+                .toolCallbacks(slowTool("getWeather", 50), slowTool("wikipedia", 1_000))
+                .toolContext(Map.of(ToolExecutionListener.CONTEXT_KEY, listener))
+                .build());
+
+        ToolExecutionResult result = manager.executeToolCalls(prompt, toolCalls("getWeather", "wikipedia"));
+        Thread.sleep(100);
+
+        // the listener is not handed on to tools, which would reject a non-empty context
+        assertThat(responses(result)).extracting(ToolResponseMessage.ToolResponse::responseData).first().isEqualTo("getWeather(0)");
+        assertThat(events).containsExactlyInAnyOrder("started getWeather", "started wikipedia",
+                "finished getWeather", "failed wikipedia");
+    }
+
+    private static List<ToolResponseMessage.ToolResponse> responses(ToolExecutionResult result) {
+        Message last = result.conversationHistory().getLast();
+        return ((ToolResponseMessage) last).getResponses();
+    }
+
+    private static Prompt prompt(ToolCallback... tools) {
+        return new Prompt(List.of(new UserMessage("question")), ToolCallingChatOptions.builder().toolCallbacks(tools).build());
+    }
+
+    private static ChatResponse toolCalls(String... names) {
+        List<AssistantMessage.ToolCall> calls = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            calls.add(new AssistantMessage.ToolCall(String.valueOf(i), "function", names[i], "{\"id\":\"" + i + "\"}"));
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("", Map.of(), calls))));
+    }
+
+    private static ToolCallback slowTool(String name, long millis) {
+        ToolDefinition definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return definition;
+            }
+
+            @Override
+            public String call(String toolInput) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return "interrupted";
+                }
+                return name + "(" + toolInput.replaceAll("\\D", "") + ")";
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.ai.springaitool.tools.output;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ToolOutputCompactorTests {
+
+    private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void onlyRequestedFieldsAreExtracted() throws IOException {
+        String json = """
+                {"type":"standard","title":"Spring Framework","namespace":{"id":0,"text":""},
+                 "thumbnail":{"source":"https://upload.wikimedia.org/x.png","width":320,"height":[1,{"title":"nested"}]},
+                 "description":null,"extract":"An application framework.",
+                 "content_urls":{"desktop":{"page":"https://en.wikipedia.org/wiki/Spring_Framework"}}}""";
+
+        assertThat(JsonFields.extract(json, List.of("title", "description", "extract", "content_urls.desktop.page",
+                "thumbnail.height.1.title")))
+                .containsExactly(entry("title", "Spring Framework"),
+                        entry("thumbnail.height.1.title", "nested"),
+                        entry("extract", "An application framework."),
+                        entry("content_urls.desktop.page", "https://en.wikipedia.org/wiki/Spring_Framework"));
+    }
+
+    @Test
+    void outputWithinBudgetIsUnchanged() {
+        ToolOutputCompactor compactor = new ToolOutputCompactor("wikipedia", 50, estimator, meterRegistry);
+
+        assertThat(compactor.compact("{\"extract\":\"Short text.\"}", "Short text.")).isEqualTo("Short text.");
+        assertThat(meterRegistry.get("ai.tool.output.truncated").counter().count()).isZero();
+    }
+
+    @Test
+    void longOutputIsCutAtAWordToTheBudgetAndCounted() {
+        ToolOutputCompactor compactor = new ToolOutputCompactor("wikipedia", 20, estimator, meterRegistry);
+        String text = "word ".repeat(200).strip();
+
+        String compacted = compactor.compact(text, text);
+
+        assertThat(estimator.estimate(compacted)).isLessThanOrEqualTo(20);
+        assertThat(compacted).endsWith("word" + ToolOutputCompactor.TRUNCATED);
+        assertThat(meterRegistry.get("ai.tool.output.tokens").tag("stage", "input").summary().totalAmount())
+                .isEqualTo(estimator.estimate(text));
+        assertThat(meterRegistry.get("ai.tool.output.tokens").tag("stage", "output").summary().totalAmount())
+                .isEqualTo(estimator.estimate(compacted));
+        assertThat(meterRegistry.get("ai.tool.output.truncated").counter().count()).isEqualTo(1);
+    }
+}